@@ -1,6 +1,8 @@
 package org.pc.reflection;
 
 import org.pc.reflection.factory.ReflectorFactory;
+import org.pc.reflection.invoker.Invoker;
+import org.pc.reflection.property.PropertyTokenizer;
 
 /**
  *     Reflector 实现了实体类元信息的封装，但是类中的成员变量是类的情况没有进行处理。
@@ -20,7 +22,113 @@ public class MetaClass {
         return new MetaClass(type, reflectorFactory);
     }
 
+    /**
+     * 为属性的 getter 类型创建 MetaClass，例如 order.customer 中 customer 属性的类型
+     */
     public MetaClass metaClassForProperty(String name) {
-        
+        Class<?> propType = reflector.getGetterTypes(name);
+        return MetaClass.forClass(propType, reflectorFactory);
+    }
+
+    public Reflector getReflector() {
+        return reflector;
+    }
+
+    public Class<?> getType() {
+        return reflector.getType();
+    }
+
+    /**
+     * 不区分大小写地查找属性表达式，例如 ORDER.customerName --> order.customerName
+     * @return 找不到时返回 null
+     */
+    public String findProperty(String name) {
+        StringBuilder prop = buildProperty(name, new StringBuilder());
+        return prop.length() > 0 ? prop.toString() : null;
+    }
+
+    private StringBuilder buildProperty(String name, StringBuilder builder) {
+        PropertyTokenizer prop = new PropertyTokenizer(name);
+        if (prop.hasNext()) {
+            String propertyName = reflector.findPropertyName(prop.getName());
+            if (propertyName != null) {
+                builder.append(propertyName);
+                builder.append(".");
+                MetaClass metaProp = metaClassForProperty(propertyName);
+                metaProp.buildProperty(prop.getChildren(), builder);
+            }
+        } else {
+            String propertyName = reflector.findPropertyName(name);
+            if (propertyName != null) {
+                builder.append(propertyName);
+            }
+        }
+        return builder;
+    }
+
+    public String[] getGetterNames() {
+        return reflector.getGetablePropertyNames();
+    }
+
+    public String[] getSetterNames() {
+        return reflector.getSetablePropertyNames();
+    }
+
+    //解析属性表达式，获取最后一级属性的 getter 类型
+    public Class<?> getGetterType(String name) {
+        PropertyTokenizer prop = new PropertyTokenizer(name);
+        if (prop.hasNext()) {
+            MetaClass metaProp = metaClassForProperty(prop.getName());
+            return metaProp.getGetterType(prop.getChildren());
+        }
+        return reflector.getGetterTypes(prop.getName());
+    }
+
+    //解析属性表达式，获取最后一级属性的 setter 类型
+    public Class<?> getSetterType(String name) {
+        PropertyTokenizer prop = new PropertyTokenizer(name);
+        if (prop.hasNext()) {
+            MetaClass metaProp = metaClassForProperty(prop.getName());
+            return metaProp.getSetterType(prop.getChildren());
+        }
+        return reflector.getSetterTypes(prop.getName());
+    }
+
+    public boolean hasGetter(String name) {
+        PropertyTokenizer prop = new PropertyTokenizer(name);
+        if (prop.hasNext()) {
+            if (reflector.hasGetter(prop.getName())) {
+                MetaClass metaProp = metaClassForProperty(prop.getName());
+                return metaProp.hasGetter(prop.getChildren());
+            }
+            return false;
+        }
+        return reflector.hasGetter(prop.getName());
+    }
+
+    public boolean hasSetter(String name) {
+        PropertyTokenizer prop = new PropertyTokenizer(name);
+        if (prop.hasNext()) {
+            if (reflector.hasGetter(prop.getName())) {
+                MetaClass metaProp = metaClassForProperty(prop.getName());
+                return metaProp.hasSetter(prop.getChildren());
+            }
+            return false;
+        }
+        return reflector.hasSetter(prop.getName());
+    }
+
+    //获取当前类中（不解析表达式）属性的 getter Invoker
+    public Invoker getGetInvoker(String name) {
+        return reflector.getGetInvoker(name);
+    }
+
+    //获取当前类中（不解析表达式）属性的 setter Invoker
+    public Invoker getSetInvoker(String name) {
+        return reflector.getSetInvoker(name);
+    }
+
+    public boolean hasDefaultConstructor() {
+        return reflector.hasDefaultConstructor();
     }
 }
@@ -1,14 +1,21 @@
 package org.pc.reflection;
 
 import org.pc.reflection.exception.ReflectionException;
+import org.pc.reflection.factory.ConstructorInstantiator;
+import org.pc.reflection.invoker.AdaptiveInvoker;
 import org.pc.reflection.invoker.GetFieldInvoker;
 import org.pc.reflection.invoker.Invoker;
 import org.pc.reflection.invoker.MethodInvoker;
 import org.pc.reflection.invoker.SetFieldInvoker;
 import org.pc.reflection.property.PropertyName;
+import org.pc.reflection.property.PropertySet;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 
 /**
  * 类元信息的封装
@@ -29,17 +36,58 @@ public class Reflector {
     private Map<String, Class<?>> getTypes = new HashMap<>();
     private Map<String, Class<?>> setTypes = new HashMap<>();
     private Map<String, String> caseInsensitivePropertyMap = new HashMap<>();
+    /**
+     * 属性的 getter/setter 对应的成员（Method 或 Field），以及由 TypeParameterResolver 解析后的完整泛型类型
+     */
+    private Map<String, Member> getMembers = new HashMap<>();
+    private Map<String, Member> setMembers = new HashMap<>();
+    private Map<String, Type> getGenericTypes = new HashMap<>();
+    private Map<String, Type> setGenericTypes = new HashMap<>();
+    /**
+     * 与属性同名的字段（子类中的优先），用于读取写在字段上的注解
+     */
+    private Map<String, Field> propertyFields = new HashMap<>();
+    /**
+     * 属性的注解索引，第一次使用时才创建
+     */
+    private volatile AnnotationIndex annotationIndex;
+    /**
+     * Invoker 升级为 MethodHandle 调用的阈值，小于 0 表示不升级，一直走反射
+     */
+    private int invokerThreshold;
     /**
      * 类默认构造方法
      */
     private Constructor<?> defaultConstructor;
+    /**
+     * 与属性匹配的构造器，第一次使用时才查找
+     */
+    private volatile ConstructorInstantiator constructorInstantiator;
+    /**
+     * 查找构造器失败时的异常，之后直接抛出，不再重复查找
+     */
+    private volatile ReflectionException constructorInstantiatorFailure;
+    /**
+     * 基于本 Reflector 编译的执行计划，第一次使用时才创建
+     */
+    private volatile ConcurrentMap<Object, Object> plans;
 
     /**
      * 构造函数，将类包装成 Reflector
      * @param clazz 待包装类
      */
     public Reflector(Class<?> clazz) {
+        this(clazz, AdaptiveInvoker.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * 构造函数，将类包装成 Reflector
+     * @param clazz 待包装类
+     * @param invokerThreshold Invoker 调用多少次后升级为 MethodHandle 调用，小于 0 表示不升级
+     */
+    public Reflector(Class<?> clazz, int invokerThreshold) {
         type = clazz;
+        this.invokerThreshold = invokerThreshold;
         addDefaultConstructor(clazz);
         //全程解说
         addGetMethods(clazz);
@@ -63,6 +111,9 @@ public class Reflector {
     private void addFields(Class<?> clazz) {
         Field[] fields = clazz.getDeclaredFields();
         for (Field field : fields) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                propertyFields.putIfAbsent(field.getName(), field);
+            }
             if (canAccessPrivateMethods()) {
                 try {
                     field.setAccessible(true);
@@ -95,35 +146,70 @@ public class Reflector {
     private void addGetField(Field field) {
         if (PropertyName.isValidPropertyName(field.getName())) {
             //若 field 没有 getter 方法，则可以包装成 GetFieldInvoker，通过它来获取属性值
-            getMethods.put(field.getName(), new GetFieldInvoker(field));
+            getMethods.put(field.getName(), wrapInvoker(new GetFieldInvoker(field)));
             Type fieldType = TypeParameterResolver.resolveFiledType(field, type);
             getTypes.put(field.getName(), typeToClass(fieldType));
+            getMembers.put(field.getName(), field);
+            getGenericTypes.put(field.getName(), fieldType);
         }
     }
 
     private void addSetField(Field field) {
         if (PropertyName.isValidPropertyName(field.getName())) {
             //若 field 没有 setter 方法，则可以包装成 SetFieldInvoker，通过它来设置属性值
-            setMethods.put(field.getName(), new SetFieldInvoker(field));
+            setMethods.put(field.getName(), wrapInvoker(new SetFieldInvoker(field)));
             Type fieldType = TypeParameterResolver.resolveFiledType(field, type);
             setTypes.put(field.getName(), typeToClass(fieldType));
+            setMembers.put(field.getName(), field);
+            setGenericTypes.put(field.getName(), fieldType);
         }
     }
 
     private void addSetMethods(Class<?> clazz) {
-        Map<String, List<Method>> conflictingSetters = new HashMap<>();
+        Map<String, Object> candidates = new HashMap<>();
         Method[] methods = getClassMethods(clazz);
         for (Method method : methods) {
             String methodName = method.getName();
             if ((methodName.startsWith("set") && methodName.length() > 3)
-                    && (method.getParameterTypes().length == 1)) {
+                    && (method.getParameterCount() == 1)) {
                 methodName = PropertyName.methodToProperty(methodName);
-                conflictingSetters.computeIfAbsent(methodName, k -> new ArrayList<>()).add(method);
+                addCandidate(candidates, methodName, method);
+            }
+        }
+        //只有一个 setter 的属性直接添加，存在冲突的才需要比较
+        Map<String, List<Method>> conflictingSetters = new HashMap<>();
+        for (Map.Entry<String, Object> entry : candidates.entrySet()) {
+            if (entry.getValue() instanceof Method) {
+                addSetMethod(entry.getKey(), (Method) entry.getValue());
+            } else {
+                conflictingSetters.put(entry.getKey(), asMethodList(entry.getValue()));
             }
         }
         resolveSetterConflicts(conflictingSetters);
     }
 
+    /**
+     *     记录属性对应的 getter/setter 候选方法：大多数属性只有一个方法，直接存放 Method，出现第二个方法时才换成 List，
+     * 避免为每个属性都创建一个 ArrayList。
+     */
+    @SuppressWarnings("unchecked")
+    private static void addCandidate(Map<String, Object> candidates, String propertyName, Method method) {
+        Object existing = candidates.putIfAbsent(propertyName, method);
+        if (existing instanceof Method) {
+            List<Method> conflicts = new ArrayList<>(2);
+            conflicts.add((Method) existing);
+            conflicts.add(method);
+            candidates.put(propertyName, conflicts);
+        } else if (existing != null) {
+            ((List<Method>) existing).add(method);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Method> asMethodList(Object candidate) {
+        return (List<Method>) candidate;
+    }
+
     /**
      * 问题：为什么 setter 也会出现冲突，毕竟没有返回值类型？
      * 原因：
@@ -141,8 +227,8 @@ public class Reflector {
             ReflectionException exception = null;
             for (Method setter : setters) {
                 Class<?> parameterType = setter.getParameterTypes()[0];
-                //这是最符合要求的，停止寻找
-                if (getterType.equals(parameterType)) {
+                //这是最符合要求的，停止寻找（只有 setter 没有 getter 时，getterType 为 null）
+                if (parameterType.equals(getterType)) {
                     match = setter;
                     break;
                 }
@@ -184,31 +270,42 @@ public class Reflector {
 
     private void addSetMethod(String propertyName, Method method) {
         if (PropertyName.isValidPropertyName(propertyName)) {
-            setMethods.put(propertyName, new MethodInvoker(method));
+            setMethods.put(propertyName, wrapInvoker(new MethodInvoker(method)));
             //方法可能存在多个参数，每个都要解析出来
             Type[] paramTypes = TypeParameterResolver.resolveParamType(method, type);
             //JavaBean 规范，setter 方法只有一个参数，第一个参数即可
             setTypes.put(propertyName, typeToClass(paramTypes[0]));
+            setMembers.put(propertyName, method);
+            setGenericTypes.put(propertyName, paramTypes[0]);
         }
     }
 
     private void addGetMethods(Class<?> clazz) {
         //因为可能子类会覆盖父类方法，所以，相同的方法可能存在多个，键就是方法的签名，后面会说格式
-        Map<String, List<Method>> conflictingGetters = new HashMap<>();
+        Map<String, Object> candidates = new HashMap<>();
         Method[] methods = getClassMethods(clazz);
         for (Method method : methods) {
             String methodName = method.getName();
             if ((methodName.startsWith("get") && methodName.length() > 3) ||
                     (methodName.startsWith("is") && methodName.length() > 2)) {
                 //JavaBean 规范，属性的 getter() 方法不容许有参数
-                if (method.getParameterTypes().length == 0) {
+                if (method.getParameterCount() == 0) {
                     //从属性的 getter 方法中推导出属性名
                     methodName = PropertyName.methodToProperty(methodName);
                     //将所有方法放入 Map 集合中
-                    conflictingGetters.computeIfAbsent(methodName, k -> new ArrayList<>()).add(method);
+                    addCandidate(candidates, methodName, method);
                 }
             }
         }
+        //只有一个 getter 的属性直接添加，存在冲突的才需要比较
+        Map<String, List<Method>> conflictingGetters = new HashMap<>();
+        for (Map.Entry<String, Object> entry : candidates.entrySet()) {
+            if (entry.getValue() instanceof Method) {
+                addGetMethod(entry.getKey(), (Method) entry.getValue());
+            } else {
+                conflictingGetters.put(entry.getKey(), asMethodList(entry.getValue()));
+            }
+        }
         /*
          *     上面得到的 methods 已经去掉了一些重复的方法：子类覆盖父类的方法。但是若子类在覆盖父类的方法时，
          * 返回值是父类返回值的子类，比如：
@@ -253,7 +350,7 @@ public class Reflector {
     private void addGetMethod(String propertyName, Method method) {
         if (PropertyName.isValidPropertyName(propertyName)) {
             //将 Method 包装成 Invoker 对象
-            getMethods.put(propertyName, new MethodInvoker(method));
+            getMethods.put(propertyName, wrapInvoker(new MethodInvoker(method)));
             /*
              * 问题：这里为什么需要对方法的返回类型进行再次处理？
              * 回答：因为存在泛型（Map<K, V> 或 List<String> 或 String），而对于泛型，不能直接返回，而是需要进行再处理，
@@ -272,9 +369,18 @@ public class Reflector {
              * 这个方法的目的
              */
             getTypes.put(propertyName, typeToClass(returnType));
+            getMembers.put(propertyName, method);
+            getGenericTypes.put(propertyName, returnType);
         }
     }
 
+    /**
+     * 根据阈值将反射型 Invoker 包装成分层的 AdaptiveInvoker，热点属性会自动升级为 MethodHandle 调用
+     */
+    private Invoker wrapInvoker(Invoker invoker) {
+        return invokerThreshold < 0 ? invoker : new AdaptiveInvoker(invoker, invokerThreshold);
+    }
+
     /**
      *     在 TypeParameterResolver#resolveType() 方法中对泛型进行解析时，TypeVariable、WildcardType
      * 将会被直接解析成具体的类，比如：String.class等，而 ParameterizedType（Service<User>） 和
@@ -304,29 +410,71 @@ public class Reflector {
         return result;
     }
 
-    private Method[] getClassMethods(Class<?> clazz) {
-        Map<String, Method> uniqueMethods = new HashMap<>();
-        Class<?> currentClass = clazz;
-        while (currentClass != null) {
+    /**
+     *     每个类自身声明的（非桥接）方法，键为方法签名。接口和父类会被很多子类共用，缓存后签名只需计算一次。
+     * 使用 ClassValue 缓存，不会阻止类被卸载。
+     */
+    private static final ClassValue<Map<MethodSignature, Method>> DECLARED_METHODS = new ClassValue<Map<MethodSignature, Method>>() {
+        @Override
+        protected Map<MethodSignature, Method> computeValue(Class<?> clazz) {
+            Method[] methods = clazz.getDeclaredMethods();
+            Map<MethodSignature, Method> declaredMethods = new HashMap<>((int) (methods.length / 0.75f) + 1);
+            addUniqueMethods(declaredMethods, methods);
+            return Collections.unmodifiableMap(declaredMethods);
+        }
+    };
+
+    /**
+     *     每个类（包括其实现的接口和所有父类）去重后的方法表，键为方法签名。构建子类的方法表时直接复用父类的方法表，
+     * 而不是重新扫描整个继承体系，这样 N 个子类共用一个父类时，父类的方法只会被扫描一次。
+     */
+    private static final ClassValue<Map<MethodSignature, Method>> UNIQUE_METHODS = new ClassValue<Map<MethodSignature, Method>>() {
+        @Override
+        protected Map<MethodSignature, Method> computeValue(Class<?> clazz) {
             //当前类所有的方法
-            addUniqueMethods(uniqueMethods, currentClass.getDeclaredMethods());
+            Map<MethodSignature, Method> uniqueMethods = new HashMap<>(DECLARED_METHODS.get(clazz));
             //获取当前类所实现的所有接口
-            Class<?>[] interfaces = currentClass.getInterfaces();
-            for (Class<?> anInterface : interfaces) {
-                addUniqueMethods(uniqueMethods, anInterface.getDeclaredMethods());
+            for (Class<?> anInterface : clazz.getInterfaces()) {
+                putAbsent(uniqueMethods, DECLARED_METHODS.get(anInterface));
+            }
+            //父类的方法表已经包含了更上层的父类，若已包含该签名，说明子类已经覆盖了该方法
+            Class<?> superclass = clazz.getSuperclass();
+            if (superclass != null) {
+                putAbsent(uniqueMethods, UNIQUE_METHODS.get(superclass));
             }
-            //获取父类，继续迭代
-            currentClass = currentClass.getSuperclass();
+            return Collections.unmodifiableMap(uniqueMethods);
+        }
+    };
+
+    /**
+     * 方法表对应的数组，Reflector 构建时 getter 和 setter 各遍历一次，不需要每次都复制
+     */
+    private static final ClassValue<Method[]> CLASS_METHODS = new ClassValue<Method[]>() {
+        @Override
+        protected Method[] computeValue(Class<?> clazz) {
+            return UNIQUE_METHODS.get(clazz).values().toArray(new Method[0]);
+        }
+    };
+
+    private static void putAbsent(Map<MethodSignature, Method> uniqueMethods, Map<MethodSignature, Method> methods) {
+        for (Map.Entry<MethodSignature, Method> entry : methods.entrySet()) {
+            uniqueMethods.putIfAbsent(entry.getKey(), entry.getValue());
         }
-        return uniqueMethods.values().toArray(new Method[0]);
     }
 
-    private void addUniqueMethods(Map<String, Method> uniqueMethods, Method[] methods) {
+    /**
+     * @return 方法表，数组被多个 Reflector 共用，不能修改
+     */
+    private Method[] getClassMethods(Class<?> clazz) {
+        return CLASS_METHODS.get(clazz);
+    }
+
+    private static void addUniqueMethods(Map<MethodSignature, Method> uniqueMethods, Method[] methods) {
         for (Method method : methods) {
             if (!method.isBridge()) {
                 //获取方法签名
-                String signature = getSignature(method);
-                //因为是从子类向父类开始迭代，若已包含该键，说明子类已经覆盖了该方法，不需要再加入
+                MethodSignature signature = new MethodSignature(method);
+                //同一个类中不会出现签名相同的非桥接方法，这里保留判断以防万一
                 if (!uniqueMethods.containsKey(signature)) {
                     if (canAccessPrivateMethods()) {
                         try {
@@ -340,27 +488,49 @@ public class Reflector {
             }
         }
     }
+
     /**
-     * 方法签名：返回值类型#方法名：参数1,参数2,参数3
+     *     方法签名：返回值类型 + 方法名 + 参数类型。直接比较 Class 对象，不需要像 "返回值类型#方法名:参数1,参数2" 这样
+     * 拼接字符串，方法名由 JVM 驻留，参数类型数组只复制一次。
      */
-    private String getSignature(Method method) {
-        StringBuilder sb = new StringBuilder();
-        Class<?> returnType = method.getReturnType();
-        if (returnType != null) {
-            sb.append(returnType.getName()).append("#");
+    private static final class MethodSignature {
+        private static final Class<?>[] NO_PARAMETERS = new Class<?>[0];
+
+        private final Class<?> returnType;
+        private final String name;
+        private final Class<?>[] parameterTypes;
+        private final int hash;
+
+        MethodSignature(Method method) {
+            this.returnType = method.getReturnType();
+            this.name = method.getName();
+            this.parameterTypes = method.getParameterCount() == 0 ? NO_PARAMETERS : method.getParameterTypes();
+            int h = returnType.hashCode() * 31 + name.hashCode();
+            for (Class<?> parameterType : parameterTypes) {
+                h = h * 31 + parameterType.hashCode();
+            }
+            this.hash = h;
         }
-        sb.append(method.getName());
-        Class<?>[] parameterTypes = method.getParameterTypes();
-        for (int i = 0; i < parameterTypes.length; i++) {
-            if (i == 0) {
-                sb.append(":");
-            } else {
-                sb.append(",");
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
             }
-            sb.append(parameterTypes[i].getName());
+            if (!(o instanceof MethodSignature)) {
+                return false;
+            }
+            MethodSignature other = (MethodSignature) o;
+            return hash == other.hash && returnType == other.returnType && name.equals(other.name)
+                    && Arrays.equals(parameterTypes, other.parameterTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
         }
-        return sb.toString();
     }
+
     private void addDefaultConstructor(Class<?> clazz) {
         Constructor<?>[] constructors = clazz.getDeclaredConstructors();
         for (Constructor constructor : constructors) {
@@ -419,6 +589,59 @@ public class Reflector {
             throw new ReflectionException("There is no default constructor for " + type);
         }
     }
+    /**
+     * 获取与属性匹配的构造器，结果会被缓存，找不到时抛出的异常也会被缓存
+     */
+    public ConstructorInstantiator getConstructorInstantiator() {
+        ConstructorInstantiator instantiator = constructorInstantiator;
+        if (instantiator == null) {
+            ReflectionException failure = constructorInstantiatorFailure;
+            if (failure != null) {
+                throw new ReflectionException(failure.getMessage(), failure);
+            }
+            try {
+                instantiator = ConstructorInstantiator.forClass(type);
+            } catch (ReflectionException e) {
+                constructorInstantiatorFailure = e;
+                throw e;
+            }
+            constructorInstantiator = instantiator;
+        }
+        return instantiator;
+    }
+    /**
+     * 预先绑定一组属性，用于批量读写，例如 getPropertySet("id", "name").writeAll(bean, row)
+     */
+    public PropertySet getPropertySet(String... propertyNames) {
+        return new PropertySet(this, propertyNames);
+    }
+    /**
+     *     获取基于本 Reflector 编译的执行计划（如 BeanDiffer、PropertyCopier 的复制计划、BeanCodec），同一个 key
+     * 只保留一个。计划随 Reflector 一起缓存在 ReflectorFactory 中，同一个 Reflector 上的计划使用相同的属性槽位。
+     * 并发时 builder 可能被调用多次，但只有第一个结果会被保留；builder 中可以再获取其他计划。
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getPlan(Object key, Function<? super Reflector, ? extends T> builder) {
+        ConcurrentMap<Object, Object> map = plans;
+        if (map == null) {
+            synchronized (this) {
+                map = plans;
+                if (map == null) {
+                    plans = map = new ConcurrentHashMap<>(4);
+                }
+            }
+        }
+        Object plan = map.get(key);
+        if (plan == null) {
+            //不使用 computeIfAbsent()，builder 中获取其他计划时不能持有同一个 Map 的锁
+            plan = builder.apply(this);
+            Object existing = map.putIfAbsent(key, plan);
+            if (existing != null) {
+                plan = existing;
+            }
+        }
+        return (T) plan;
+    }
     public String findPropertyName(String name) {
         return caseInsensitivePropertyMap.get(name.toUpperCase(Locale.ENGLISH));
     }
@@ -454,10 +677,237 @@ public class Reflector {
     public boolean hasDefaultConstructor() {
         return defaultConstructor != null;
     }
+
+    /**
+     *     估算当前 Reflector 占用的堆内存（字节），包括各个 Map、Invoker、属性名数组以及属性名字符串。
+     * 按 64 位 JVM 开启压缩指针的布局估算（对象头 12 字节，引用 4 字节，按 8 字节对齐），Class 对象由 JVM 持有，不计入。
+     * 升级后的 Invoker 会持有 MethodHandle，所以同一个 Reflector 在升级前后的估算值会不同。
+     * 按需创建的注解索引、执行计划和解析后的泛型类型对象不计入；DECLARED_METHODS 等按类缓存的方法表由所有 Reflector
+     * 共享，也不计入。
+     */
+    public long estimateRetainedSize() {
+        //Reflector 自身：对象头 + 18 个引用 + 1 个 int
+        long size = align(OBJECT_HEADER + 18 * REFERENCE + 4);
+        size += arraySize(readablePropertyNames.length, REFERENCE) + arraySize(writablePropertyNames.length, REFERENCE);
+        //属性名字符串被数组和 Map 共享，只计算一次；大写形式的属性名是单独创建的
+        Set<String> names = new HashSet<>(Arrays.asList(readablePropertyNames));
+        names.addAll(Arrays.asList(writablePropertyNames));
+        for (String name : names) {
+            size += stringSize(name);
+        }
+        for (String upperCaseName : caseInsensitivePropertyMap.keySet()) {
+            if (!names.contains(upperCaseName)) {
+                size += stringSize(upperCaseName);
+            }
+        }
+        size += hashMapSize(getMethods.size()) + hashMapSize(setMethods.size()) + hashMapSize(getTypes.size())
+                + hashMapSize(setTypes.size()) + hashMapSize(caseInsensitivePropertyMap.size())
+                + hashMapSize(getMembers.size()) + hashMapSize(setMembers.size()) + hashMapSize(getGenericTypes.size())
+                + hashMapSize(setGenericTypes.size()) + hashMapSize(propertyFields.size());
+        //字段只被 propertyFields 引用时才计入（getter/setter 引用的字段已经算在 Invoker 中）
+        for (Field field : propertyFields.values()) {
+            if (getMembers.get(field.getName()) != field && setMembers.get(field.getName()) != field) {
+                size += FIELD_SIZE;
+            }
+        }
+        for (Invoker invoker : getMethods.values()) {
+            size += invokerSize(invoker);
+        }
+        for (Invoker invoker : setMethods.values()) {
+            size += invokerSize(invoker);
+        }
+        if (defaultConstructor != null) {
+            size += CONSTRUCTOR_SIZE;
+        }
+        return size;
+    }
+
+    //以下常量是 HotSpot 64 位、压缩指针下的经验值
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    //Method/Field/Constructor 对象本身（不含 JVM 共享的名称、参数类型等）
+    private static final int METHOD_SIZE = 80;
+    private static final int FIELD_SIZE = 72;
+    private static final int CONSTRUCTOR_SIZE = 72;
+    //MethodHandleInvoker 及其持有的适配后的 MethodHandle 链
+    private static final int METHOD_HANDLE_INVOKER_SIZE = 256;
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    private static long arraySize(int length, int elementSize) {
+        return align(ARRAY_HEADER + (long) length * elementSize);
+    }
+
+    private static long stringSize(String value) {
+        //String 对象（value、hash 等字段）+ char[]
+        return align(OBJECT_HEADER + REFERENCE + 4 + 4) + arraySize(value.length(), 2);
+    }
+
+    private static long hashMapSize(int size) {
+        //HashMap 自身 + table 数组 + 每个 Node（hash、key、value、next）
+        int capacity = 1;
+        while (capacity * 0.75 < size) {
+            capacity <<= 1;
+        }
+        long table = size == 0 ? 0 : arraySize(Math.max(capacity, 16), REFERENCE);
+        return align(OBJECT_HEADER + 4 * REFERENCE + 4 * 4) + table + (long) size * align(OBJECT_HEADER + 4 + 3 * REFERENCE);
+    }
+
+    private static long invokerSize(Invoker invoker) {
+        long size = 0;
+        if (invoker instanceof AdaptiveInvoker) {
+            AdaptiveInvoker adaptiveInvoker = (AdaptiveInvoker) invoker;
+            size += align(OBJECT_HEADER + 2 * REFERENCE + 4 + 4 + 1);
+            if (adaptiveInvoker.isUpgraded()) {
+                size += METHOD_HANDLE_INVOKER_SIZE;
+            }
+            invoker = adaptiveInvoker.getReflectiveInvoker();
+        }
+        if (invoker instanceof MethodInvoker) {
+            size += align(OBJECT_HEADER + 2 * REFERENCE) + METHOD_SIZE;
+        } else if (invoker instanceof GetFieldInvoker || invoker instanceof SetFieldInvoker) {
+            size += align(OBJECT_HEADER + REFERENCE) + FIELD_SIZE;
+        } else {
+            size += align(OBJECT_HEADER + REFERENCE);
+        }
+        return size;
+    }
     public boolean hasGetter(String propertyName) {
         return getMethods.keySet().contains(propertyName);
     }
     public boolean hasSetter(String propertyName) {
         return setMethods.keySet().contains(propertyName);
     }
+
+    /**
+     * @return 属性 getter 对应的成员：getter 方法，没有 getter 方法时为字段
+     */
+    public Member getGetterMember(String propertyName) {
+        Member member = getMembers.get(propertyName);
+        if (member == null) {
+            throw new ReflectionException("There is no getter for property named " + propertyName);
+        }
+        return member;
+    }
+
+    /**
+     * @return 属性 setter 对应的成员：setter 方法，没有 setter 方法时为字段
+     */
+    public Member getSetterMember(String propertyName) {
+        Member member = setMembers.get(propertyName);
+        if (member == null) {
+            throw new ReflectionException("There is no setter for property named " + propertyName);
+        }
+        return member;
+    }
+
+    /**
+     * @return getter 的完整泛型类型，例如 List&lt;Long&gt;，类型变量已按当前类解析
+     */
+    public Type getGenericGetterType(String propertyName) {
+        Type genericType = getGenericTypes.get(propertyName);
+        if (genericType == null) {
+            throw new ReflectionException("There is no getter for property named " + propertyName);
+        }
+        return genericType;
+    }
+
+    /**
+     * @return setter 参数的完整泛型类型，类型变量已按当前类解析
+     */
+    public Type getGenericSetterType(String propertyName) {
+        Type genericType = setGenericTypes.get(propertyName);
+        if (genericType == null) {
+            throw new ReflectionException("There is no setter for property named " + propertyName);
+        }
+        return genericType;
+    }
+
+    /**
+     * @return 与属性同名的字段，没有时返回 null
+     */
+    public Field getPropertyField(String propertyName) {
+        return propertyFields.get(propertyName);
+    }
+
+    /**
+     * 获取属性上的注解，依次查找 getter、setter 和同名字段，先找到的优先
+     * @return 没有时返回 null
+     */
+    public <A extends Annotation> A getAnnotation(String propertyName, Class<A> annotationType) {
+        Map<Class<? extends Annotation>, Annotation> annotations = getAnnotationIndex().byProperty.get(propertyName);
+        return annotations == null ? null : annotationType.cast(annotations.get(annotationType));
+    }
+
+    /**
+     * @return 属性上的所有注解（只读），没有时返回空 Map
+     */
+    public Map<Class<? extends Annotation>, Annotation> getAnnotations(String propertyName) {
+        Map<Class<? extends Annotation>, Annotation> annotations = getAnnotationIndex().byProperty.get(propertyName);
+        return annotations == null ? Collections.<Class<? extends Annotation>, Annotation>emptyMap() : annotations;
+    }
+
+    /**
+     * @return 带有指定注解的所有属性名
+     */
+    public String[] getPropertiesAnnotatedWith(Class<? extends Annotation> annotationType) {
+        String[] propertyNames = getAnnotationIndex().byType.get(annotationType);
+        return propertyNames == null ? EMPTY_STRING_ARRAY : propertyNames.clone();
+    }
+
+    /**
+     * 提前创建按需生成的元信息（注解索引），之后在请求线程中访问时不会再触发反射
+     */
+    public void preloadMetadata() {
+        getAnnotationIndex();
+    }
+
+    private AnnotationIndex getAnnotationIndex() {
+        AnnotationIndex index = annotationIndex;
+        if (index == null) {
+            index = new AnnotationIndex(this);
+            annotationIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * 不可变的注解索引：属性名 --> 注解类型 --> 注解，以及注解类型 --> 属性名
+     */
+    private static final class AnnotationIndex {
+        private final Map<String, Map<Class<? extends Annotation>, Annotation>> byProperty = new HashMap<>();
+        private final Map<Class<? extends Annotation>, String[]> byType = new HashMap<>();
+
+        AnnotationIndex(Reflector reflector) {
+            Set<String> propertyNames = new TreeSet<>(Arrays.asList(reflector.readablePropertyNames));
+            propertyNames.addAll(Arrays.asList(reflector.writablePropertyNames));
+            Map<Class<? extends Annotation>, List<String>> properties = new HashMap<>();
+            for (String propertyName : propertyNames) {
+                Map<Class<? extends Annotation>, Annotation> annotations = new LinkedHashMap<>();
+                addAnnotations(annotations, reflector.getMembers.get(propertyName));
+                addAnnotations(annotations, reflector.setMembers.get(propertyName));
+                addAnnotations(annotations, reflector.propertyFields.get(propertyName));
+                if (!annotations.isEmpty()) {
+                    byProperty.put(propertyName, Collections.unmodifiableMap(annotations));
+                    for (Class<? extends Annotation> annotationType : annotations.keySet()) {
+                        properties.computeIfAbsent(annotationType, k -> new ArrayList<>()).add(propertyName);
+                    }
+                }
+            }
+            for (Map.Entry<Class<? extends Annotation>, List<String>> entry : properties.entrySet()) {
+                byType.put(entry.getKey(), entry.getValue().toArray(new String[0]));
+            }
+        }
+
+        private static void addAnnotations(Map<Class<? extends Annotation>, Annotation> annotations, Member member) {
+            if (member instanceof AnnotatedElement) {
+                for (Annotation annotation : ((AnnotatedElement) member).getAnnotations()) {
+                    annotations.putIfAbsent(annotation.annotationType(), annotation);
+                }
+            }
+        }
+    }
 }
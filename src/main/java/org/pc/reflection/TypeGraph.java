@@ -0,0 +1,396 @@
+package org.pc.reflection;
+
+import org.pc.reflection.exception.ReflectionException;
+import org.pc.reflection.factory.ReflectorFactory;
+import org.pc.reflection.property.PropertyTokenizer;
+import org.pc.reflection.type.GenericArrayTypeImpl;
+import org.pc.reflection.type.ParameterizedTypeImpl;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ *     从根类型出发，沿着属性的 getter 类型，以及集合元素、Map 的值、数组元素等泛型参数（由 TypeParameterResolver
+ * 解析），一次性遍历所有可达的类型，为每个类型创建 Reflector 和 MetaClass。同一层中相互独立的类型可以并行处理。
+ *     构建完成后的 TypeGraph 是不可变的，可以在线程间共享，通过它解析 order.items[0].product.name 这样的深层
+ * 属性表达式时不会再触发反射。
+ *     JDK 中的类型（java.*、javax.*）、基本类型和枚举是叶子节点，不会为它们创建 Reflector。节点按完整的泛型类型区分，
+ * 泛型类型的属性按带实际类型参数的所属类型解析，例如 Page&lt;Order&gt; 的 getItems() 解析为 List&lt;Order&gt;，
+ * Page&lt;Order&gt; 与 Page&lt;Customer&gt; 是两个节点，共用同一个 Reflector 和 MetaClass。
+ */
+public class TypeGraph {
+    /**
+     *     类型参数最多保留几层，更深的类型参数只保留原始类型。class Tree&lt;T&gt; { Tree&lt;List&lt;T&gt;&gt; child; }
+     * 这样的递归泛型每深入一层类型就会变长，不截断的话遍历永远不会结束
+     */
+    private static final int MAX_TYPE_ARGUMENT_DEPTH = 4;
+
+    private final Type rootType;
+    private final Map<Type, Node> nodes;
+
+    private TypeGraph(Type rootType, Map<Type, Node> nodes) {
+        this.rootType = rootType;
+        this.nodes = nodes;
+    }
+
+    public static TypeGraph build(Type rootType, ReflectorFactory reflectorFactory) {
+        return build(rootType, reflectorFactory, false);
+    }
+
+    /**
+     * 遍历根类型可达的所有类型，创建并缓存它们的元信息
+     * @param parallel 为 true 时同一层的类型并行处理
+     */
+    public static TypeGraph build(Type rootType, ReflectorFactory reflectorFactory, boolean parallel) {
+        Type root = canonical(rootType);
+        if (isLeaf(toClass(root))) {
+            throw new ReflectionException("Cannot build type graph for leaf type " + rootType.getTypeName());
+        }
+        ConcurrentMap<Type, Scan> scans = new ConcurrentHashMap<>();
+        scans.put(root, new Scan(root));
+        List<Type> level = Collections.singletonList(root);
+        //按层遍历，每一层的类型之间互不依赖
+        while (!level.isEmpty()) {
+            List<Type> discovered = (parallel ? level.parallelStream() : level.stream())
+                    .flatMap(type -> scans.get(type).scan(reflectorFactory).stream())
+                    .filter(type -> scans.putIfAbsent(type, new Scan(type)) == null)
+                    .collect(Collectors.toList());
+            level = discovered;
+        }
+        //所有节点都创建完成后再连接属性，允许出现环（如 Employee.manager）
+        Map<Type, Node> nodes = new HashMap<>();
+        for (Scan scan : scans.values()) {
+            nodes.put(scan.type, new Node(scan.type, scan.reflector, scan.metaClass));
+        }
+        for (Scan scan : scans.values()) {
+            nodes.get(scan.type).link(scan, nodes);
+        }
+        return new TypeGraph(root, Collections.unmodifiableMap(nodes));
+    }
+
+    public Type getRootType() {
+        return rootType;
+    }
+
+    public Node getRoot() {
+        return nodes.get(rootType);
+    }
+
+    /**
+     * @param type 类型，泛型类型需要带上实际类型参数，例如 Page&lt;Order&gt;
+     * @return 类型对应的节点，不在图中时返回 null
+     */
+    public Node getNode(Type type) {
+        return nodes.get(canonical(type));
+    }
+
+    public Set<Type> getTypes() {
+        return nodes.keySet();
+    }
+
+    /**
+     *     从根类型解析属性表达式，例如 customer.address.zip、items[0].product。带下标的一级按元素类型继续解析。
+     * @return 最后一级属性
+     */
+    public Property resolve(String path) {
+        Node node = getRoot();
+        PropertyTokenizer prop = new PropertyTokenizer(path);
+        while (true) {
+            Property property = node.getProperty(prop.getName());
+            if (!prop.hasNext()) {
+                return property;
+            }
+            Node next = prop.getIndex() != null ? property.getElementNode() : property.getNode();
+            if (next == null) {
+                throw new ReflectionException("Cannot resolve '" + prop.getChildren() + "' of property '"
+                        + prop.getIndexedName() + "' in " + node.getGenericType().getTypeName()
+                        + ", its type is not part of the type graph");
+            }
+            node = next;
+            prop = prop.next();
+        }
+    }
+
+    /**
+     * @return 最后一级属性的 getter 类型，最后一级带下标时为元素类型
+     */
+    public Class<?> getGetterType(String path) {
+        Property property = resolve(path);
+        PropertyTokenizer last = new PropertyTokenizer(path.substring(path.lastIndexOf('.') + 1));
+        return last.getIndex() != null && property.getElementType() != null ? property.getElementType() : property.getType();
+    }
+
+    /**
+     * 图中的一个类型
+     */
+    public static final class Node {
+        private final Type genericType;
+        private final Reflector reflector;
+        private final MetaClass metaClass;
+        private Map<String, Property> properties;
+
+        private Node(Type genericType, Reflector reflector, MetaClass metaClass) {
+            this.genericType = genericType;
+            this.reflector = reflector;
+            this.metaClass = metaClass;
+        }
+
+        private void link(Scan scan, Map<Type, Node> nodes) {
+            Map<String, Property> linked = new HashMap<>();
+            for (Map.Entry<String, Type> entry : scan.propertyTypes.entrySet()) {
+                Type genericType = entry.getValue();
+                Type elementType = elementType(genericType);
+                linked.put(entry.getKey(), new Property(entry.getKey(), genericType, toClass(genericType),
+                        nodes.get(genericType), elementType == null ? null : toClass(elementType),
+                        elementType == null ? null : nodes.get(elementType)));
+            }
+            properties = Collections.unmodifiableMap(linked);
+        }
+
+        public Class<?> getType() {
+            return reflector.getType();
+        }
+
+        /**
+         * @return 节点的完整类型，泛型类型带有实际类型参数
+         */
+        public Type getGenericType() {
+            return genericType;
+        }
+
+        public Reflector getReflector() {
+            return reflector;
+        }
+
+        public MetaClass getMetaClass() {
+            return metaClass;
+        }
+
+        public Map<String, Property> getProperties() {
+            return properties;
+        }
+
+        public Property getProperty(String name) {
+            Property property = properties.get(name);
+            if (property == null) {
+                throw new ReflectionException("There is no property named '" + name + "' in '"
+                        + genericType.getTypeName() + "'");
+            }
+            return property;
+        }
+    }
+
+    /**
+     * 节点的一个属性：按所属节点的类型参数解析后的泛型类型、原始类型，以及对应的节点（类型为叶子节点时为 null）
+     */
+    public static final class Property {
+        private final String name;
+        private final Type genericType;
+        private final Class<?> type;
+        private final Node node;
+        private final Class<?> elementType;
+        private final Node elementNode;
+
+        private Property(String name, Type genericType, Class<?> type, Node node, Class<?> elementType, Node elementNode) {
+            this.name = name;
+            this.genericType = genericType;
+            this.type = type;
+            this.node = node;
+            this.elementType = elementType;
+            this.elementNode = elementNode;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Type getGenericType() {
+            return genericType;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        public Node getNode() {
+            return node;
+        }
+
+        /**
+         * @return 集合的元素类型、Map 的值类型或数组的元素类型，其他属性返回 null
+         */
+        public Class<?> getElementType() {
+            return elementType;
+        }
+
+        public Node getElementNode() {
+            return elementNode;
+        }
+    }
+
+    /**
+     * 构建过程中一个类型的扫描结果
+     */
+    private static final class Scan {
+        private final Type type;
+        private Reflector reflector;
+        private MetaClass metaClass;
+        private final Map<String, Type> propertyTypes = new HashMap<>();
+
+        private Scan(Type type) {
+            this.type = type;
+        }
+
+        /**
+         * @return 属性类型中引用到的、需要继续遍历的类型
+         */
+        private Set<Type> scan(ReflectorFactory reflectorFactory) {
+            Class<?> rawType = toClass(type);
+            reflector = reflectorFactory.findForClass(rawType);
+            reflector.preloadMetadata();
+            metaClass = MetaClass.forClass(rawType, reflectorFactory);
+            for (String name : reflector.getGetablePropertyNames()) {
+                propertyTypes.put(name, canonical(type instanceof ParameterizedType
+                        ? resolveGetterType(reflector.getGetterMember(name), type) : reflector.getGenericGetterType(name)));
+            }
+            for (String name : reflector.getSetablePropertyNames()) {
+                if (!propertyTypes.containsKey(name)) {
+                    propertyTypes.put(name, canonical(type instanceof ParameterizedType
+                            ? resolveSetterType(reflector.getSetterMember(name), type) : reflector.getGenericSetterType(name)));
+                }
+            }
+            Set<Type> referenced = new HashSet<>();
+            for (Type propertyType : propertyTypes.values()) {
+                collect(propertyType, referenced);
+            }
+            return referenced;
+        }
+    }
+
+    /**
+     * Reflector 中的泛型类型是按原始类型解析的，带实际类型参数的节点需要按 owner 重新解析
+     */
+    private static Type resolveGetterType(Member member, Type owner) {
+        return member instanceof Method ? TypeParameterResolver.resolveReturnType((Method) member, owner)
+                : TypeParameterResolver.resolveFiledType((Field) member, owner);
+    }
+
+    private static Type resolveSetterType(Member member, Type owner) {
+        return member instanceof Method ? TypeParameterResolver.resolveParamType((Method) member, owner)[0]
+                : TypeParameterResolver.resolveFiledType((Field) member, owner);
+    }
+
+    /**
+     *     统一成节点使用的键：通配符和类型变量替换为上界，参数化类型的 ownerType 置为 null，元素为 Class 的泛型数组
+     * 替换为数组类，保证同一个类型不论来自 JDK 还是 TypeParameterResolver 都得到相等的键。
+     */
+    private static Type canonical(Type type) {
+        return canonical(type, 0);
+    }
+
+    private static Type canonical(Type type, int depth) {
+        if (type instanceof ParameterizedType) {
+            if (depth >= MAX_TYPE_ARGUMENT_DEPTH) {
+                return toClass(type);
+            }
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            Type[] canonicalArguments = new Type[arguments.length];
+            for (int i = 0; i < arguments.length; i++) {
+                canonicalArguments[i] = canonical(arguments[i], depth + 1);
+            }
+            return new ParameterizedTypeImpl(toClass(type), null, canonicalArguments);
+        } else if (type instanceof GenericArrayType) {
+            Type componentType = canonical(((GenericArrayType) type).getGenericComponentType(), depth);
+            return componentType instanceof Class ? Array.newInstance((Class<?>) componentType, 0).getClass()
+                    : new GenericArrayTypeImpl(componentType);
+        } else if (type instanceof WildcardType) {
+            return canonical(((WildcardType) type).getUpperBounds()[0], depth);
+        } else if (type instanceof TypeVariable) {
+            Type[] bounds = ((TypeVariable<?>) type).getBounds();
+            return bounds.length > 0 ? canonical(bounds[0], depth) : Object.class;
+        }
+        return type;
+    }
+
+    /**
+     * 收集泛型类型中引用到的非叶子类型，参数化类型连同实际类型参数一起作为一个节点
+     */
+    private static void collect(Type type, Set<Type> referenced) {
+        if (type instanceof Class) {
+            Class<?> clazz = (Class<?>) type;
+            if (clazz.isArray()) {
+                collect(clazz.getComponentType(), referenced);
+            } else if (!isLeaf(clazz)) {
+                referenced.add(clazz);
+            }
+        } else if (type instanceof ParameterizedType) {
+            if (!isLeaf(toClass(type))) {
+                referenced.add(type);
+            }
+            for (Type argument : ((ParameterizedType) type).getActualTypeArguments()) {
+                collect(argument, referenced);
+            }
+        } else if (type instanceof GenericArrayType) {
+            collect(((GenericArrayType) type).getGenericComponentType(), referenced);
+        }
+    }
+
+    /**
+     * 集合的元素类型、Map 的值类型或数组的元素类型
+     */
+    private static Type elementType(Type type) {
+        if (type instanceof Class) {
+            Class<?> clazz = (Class<?>) type;
+            return clazz.isArray() ? clazz.getComponentType() : null;
+        } else if (type instanceof GenericArrayType) {
+            return ((GenericArrayType) type).getGenericComponentType();
+        } else if (type instanceof ParameterizedType) {
+            Class<?> rawType = toClass(type);
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (Collection.class.isAssignableFrom(rawType) && arguments.length == 1) {
+                return arguments[0];
+            } else if (Map.class.isAssignableFrom(rawType) && arguments.length == 2) {
+                return arguments[1];
+            }
+        }
+        return null;
+    }
+
+    private static Class<?> toClass(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        } else if (type instanceof ParameterizedType) {
+            return toClass(((ParameterizedType) type).getRawType());
+        } else if (type instanceof GenericArrayType) {
+            return Array.newInstance(toClass(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        } else if (type instanceof WildcardType) {
+            return toClass(((WildcardType) type).getUpperBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    /**
+     * 叶子类型：基本类型、枚举以及 JDK 中的类型
+     */
+    private static boolean isLeaf(Class<?> type) {
+        String name = type.getName();
+        return type.isPrimitive() || type.isEnum() || type.isArray() || name.startsWith("java.") || name.startsWith("javax.");
+    }
+}
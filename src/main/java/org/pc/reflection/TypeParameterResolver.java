@@ -135,6 +135,15 @@ public final class TypeParameterResolver {
         }
         //若 srcType 源类型 和 方法所在声明类 一致
         if (clazz == declaringClass) {
+            //srcType 本身带有实际类型参数时（例如 Page<Order>），直接取对应位置的类型参数
+            if (srcType instanceof ParameterizedType) {
+                TypeVariable<?>[] declaredTypeVars = declaringClass.getTypeParameters();
+                for (int i = 0; i < declaredTypeVars.length; i++) {
+                    if (declaredTypeVars[i].equals(typeVar)) {
+                        return ((ParameterizedType) srcType).getActualTypeArguments()[i];
+                    }
+                }
+            }
             Type[] bounds = typeVar.getBounds();
             return bounds.length > 0 ? bounds[0] : Object.class;
         }
@@ -209,7 +218,7 @@ public final class TypeParameterResolver {
         return result;
     }
 
-    public static Type[] resolveParamType(Method method, Class<?> srcType) {
+    public static Type[] resolveParamType(Method method, Type srcType) {
         Type[] genericParameterTypes = method.getGenericParameterTypes();
         Class<?> declaringClass = method.getDeclaringClass();
         Type[] results = new Type[genericParameterTypes.length];
@@ -219,7 +228,7 @@ public final class TypeParameterResolver {
         return results;
     }
 
-    public static Type resolveFiledType(Field field, Class<?> srcType) {
+    public static Type resolveFiledType(Field field, Type srcType) {
         //获取字段的声明类型
         Type fieldGenericType = field.getGenericType();
         //获取字段定义所在的类的 Class 对象
@@ -0,0 +1,37 @@
+package org.pc.reflection.columnar;
+
+/**
+ * ColumnarStore 中一个属性对应的列，下标即行号
+ */
+public abstract class Column {
+    private final String name;
+    private final Class<?> type;
+
+    Column(String name, Class<?> type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    //读取指定行的值，基本类型会装箱
+    public abstract Object get(int row);
+
+    //写入指定行的值
+    public abstract void set(int row, Object value);
+
+    //从 bean 中读取属性值写入指定行
+    abstract void load(Object bean, int row);
+
+    //将指定行的值写入 bean 的属性
+    abstract void store(int row, Object bean);
+
+    //保证至少能容纳 capacity 行
+    abstract void ensureCapacity(int capacity);
+}
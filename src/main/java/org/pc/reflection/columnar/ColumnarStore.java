@@ -0,0 +1,191 @@
+package org.pc.reflection.columnar;
+
+import org.pc.reflection.Reflector;
+import org.pc.reflection.exception.ReflectionException;
+import org.pc.reflection.factory.DefaultReflectorFactory;
+import org.pc.reflection.factory.ReflectorFactory;
+import org.pc.reflection.invoker.TypedGetter;
+import org.pc.reflection.invoker.TypedSetter;
+
+import java.lang.reflect.Constructor;
+import java.util.*;
+
+/**
+ *     按列存放大量同类型 JavaBean 的容器（struct-of-arrays）：根据 Reflector 元信息，每个同时可读可写的属性
+ * 对应一列，基本类型的列连续存放在 ByteBuffer 中（可选堆外），引用类型的列存放在 Object[] 中。
+ * 相比逐个保存对象，省去了对象头和指针跳转，对单个属性的扫描对缓存更加友好。
+ *     通过 add() 批量写入对象，通过 materialize() 重新创建对象，通过 Flyweight 在不创建对象的情况下读写某一行。
+ */
+public class ColumnarStore<T> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final Class<T> type;
+    private final Column[] columns;
+    private final Map<String, Column> columnsByName = new LinkedHashMap<>();
+    private final Constructor<?> defaultConstructor;
+    private int size;
+    private int capacity;
+
+    public ColumnarStore(Class<T> type) {
+        this(type, DEFAULT_CAPACITY, false);
+    }
+
+    /**
+     * 使用 DefaultReflectorFactory#getDefault() 获取 Reflector
+     * @param type JavaBean 类型
+     * @param initialCapacity 初始容量（行数）
+     * @param offHeapPrimitives 基本类型的列是否存放在堆外
+     */
+    public ColumnarStore(Class<T> type, int initialCapacity, boolean offHeapPrimitives) {
+        this(type, DefaultReflectorFactory.getDefault(), initialCapacity, offHeapPrimitives);
+    }
+
+    public ColumnarStore(Class<T> type, ReflectorFactory reflectorFactory, int initialCapacity, boolean offHeapPrimitives) {
+        this(reflectorFactory.findForClass(type), type, initialCapacity, offHeapPrimitives);
+    }
+
+    public ColumnarStore(Reflector reflector, Class<T> type, int initialCapacity, boolean offHeapPrimitives) {
+        this.type = type;
+        this.capacity = Math.max(1, initialCapacity);
+        List<String> names = new ArrayList<>();
+        for (String name : reflector.getGetablePropertyNames()) {
+            if (reflector.hasSetter(name)) {
+                names.add(name);
+            }
+        }
+        Collections.sort(names);
+        columns = new Column[names.size()];
+        for (int i = 0; i < columns.length; i++) {
+            String name = names.get(i);
+            TypedGetter getter = TypedGetter.forInvoker(reflector.getGetInvoker(name));
+            TypedSetter setter = TypedSetter.forInvoker(reflector.getSetInvoker(name));
+            if (getter.isPrimitive() && getter.getType() == setter.getType()) {
+                columns[i] = new PrimitiveColumn(name, getter.getType(), getter, setter, capacity, offHeapPrimitives);
+            } else {
+                columns[i] = new ObjectColumn(name, getter.getType(), getter, setter, capacity);
+            }
+            columnsByName.put(name, columns[i]);
+        }
+        defaultConstructor = reflector.hasDefaultConstructor() ? reflector.getDefaultConstructor() : null;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Collection<Column> getColumns() {
+        return Collections.unmodifiableCollection(columnsByName.values());
+    }
+
+    public Column getColumn(String propertyName) {
+        Column column = columnsByName.get(propertyName);
+        if (column == null) {
+            throw new ReflectionException("There is no column for property named " + propertyName + " in " + type);
+        }
+        return column;
+    }
+
+    public PrimitiveColumn getPrimitiveColumn(String propertyName) {
+        Column column = getColumn(propertyName);
+        if (!(column instanceof PrimitiveColumn)) {
+            throw new ReflectionException("Property " + propertyName + " of " + type + " is not primitive");
+        }
+        return (PrimitiveColumn) column;
+    }
+
+    public ObjectColumn getObjectColumn(String propertyName) {
+        Column column = getColumn(propertyName);
+        if (!(column instanceof ObjectColumn)) {
+            throw new ReflectionException("Property " + propertyName + " of " + type + " is primitive");
+        }
+        return (ObjectColumn) column;
+    }
+
+    /**
+     * 将对象的属性值追加为新的一行
+     * @return 行号
+     */
+    public int add(T bean) {
+        if (size == capacity) {
+            grow(size + 1);
+        }
+        int row = size;
+        for (Column column : columns) {
+            column.load(bean, row);
+        }
+        size++;
+        return row;
+    }
+
+    public void addAll(Collection<? extends T> beans) {
+        if (size + beans.size() > capacity) {
+            grow(size + beans.size());
+        }
+        for (T bean : beans) {
+            add(bean);
+        }
+    }
+
+    /**
+     * 用对象的属性值覆盖指定行
+     */
+    public void set(int row, T bean) {
+        checkRow(row);
+        for (Column column : columns) {
+            column.load(bean, row);
+        }
+    }
+
+    /**
+     * 将指定行的值写入已有对象
+     */
+    public void copyTo(int row, T bean) {
+        checkRow(row);
+        for (Column column : columns) {
+            column.store(row, bean);
+        }
+    }
+
+    /**
+     * 根据指定行的值，通过无参构造器创建对象
+     */
+    @SuppressWarnings("unchecked")
+    public T materialize(int row) {
+        if (defaultConstructor == null) {
+            throw new ReflectionException("There is no default constructor for " + type);
+        }
+        T bean;
+        try {
+            bean = (T) defaultConstructor.newInstance();
+        } catch (Exception e) {
+            throw new ReflectionException("Error instantiating " + type + ". Cause: " + e, e);
+        }
+        copyTo(row, bean);
+        return bean;
+    }
+
+    /**
+     * 创建一个指向第 0 行的 Flyweight，可以反复移动到不同的行
+     */
+    public Flyweight<T> flyweight() {
+        return new Flyweight<>(this);
+    }
+
+    void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size);
+        }
+    }
+
+    private void grow(int minCapacity) {
+        int newCapacity = Math.max(minCapacity, capacity + (capacity >> 1));
+        for (Column column : columns) {
+            column.ensureCapacity(newCapacity);
+        }
+        capacity = newCapacity;
+    }
+}
@@ -0,0 +1,186 @@
+package org.pc.reflection.columnar;
+
+import org.pc.reflection.exception.ReflectionException;
+import org.pc.reflection.property.PropertyName;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *     ColumnarStore 中某一行的视图，不创建对象即可读写该行的属性，通过 moveTo() 在行之间移动。
+ *     当 JavaBean 类型是接口时，asBean() 返回实现了该接口的代理对象，其 getter/setter 直接读写当前行，
+ * default 方法按接口中的实现执行。
+ */
+public class Flyweight<T> {
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final ColumnarStore<T> store;
+    private int row;
+    private T bean;
+
+    Flyweight(ColumnarStore<T> store) {
+        this.store = store;
+    }
+
+    public Flyweight<T> moveTo(int row) {
+        store.checkRow(row);
+        this.row = row;
+        return this;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public Object get(String propertyName) {
+        return store.getColumn(propertyName).get(row);
+    }
+
+    public void set(String propertyName, Object value) {
+        store.getColumn(propertyName).set(row, value);
+    }
+
+    public int getInt(String propertyName) {
+        return store.getPrimitiveColumn(propertyName).getInt(row);
+    }
+
+    public long getLong(String propertyName) {
+        return store.getPrimitiveColumn(propertyName).getLong(row);
+    }
+
+    public double getDouble(String propertyName) {
+        return store.getPrimitiveColumn(propertyName).getDouble(row);
+    }
+
+    public boolean getBoolean(String propertyName) {
+        return store.getPrimitiveColumn(propertyName).getBoolean(row);
+    }
+
+    /**
+     *     返回实现了 JavaBean 接口的代理对象，该对象始终读写 Flyweight 当前所在的行。接口中的方法必须是某一列的
+     * getter/setter、default 方法或 Object 的 equals()/hashCode()/toString()，否则在创建代理时抛出 ReflectionException。
+     *     default 方法按接口中的实现调用，其中调用的 getter/setter 同样读写当前行。代理对象按引用比较相等，
+     * toString() 输出当前行的属性值。
+     */
+    @SuppressWarnings("unchecked")
+    public T asBean() {
+        if (bean == null) {
+            Class<T> type = store.getType();
+            if (!type.isInterface()) {
+                throw new ReflectionException("Flyweight beans are only supported for interfaces, but was " + type);
+            }
+            Map<Method, Column> getters = new HashMap<>();
+            Map<Method, Column> setters = new HashMap<>();
+            Map<Method, MethodHandle> defaultMethods = new HashMap<>();
+            for (Method method : type.getMethods()) {
+                if (Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                Column column = findColumn(method);
+                if (column != null && PropertyName.isSetter(method.getName()) && method.getParameterCount() == 1) {
+                    setters.put(method, column);
+                } else if (column != null && PropertyName.isGetter(method.getName()) && method.getParameterCount() == 0) {
+                    getters.put(method, column);
+                } else if (method.isDefault()) {
+                    defaultMethods.put(method, defaultMethodHandle(type, method));
+                } else if (!isObjectMethod(method)) {
+                    throw new ReflectionException("Method " + method + " of " + type + " is neither a getter/setter of"
+                            + " a column nor a default method, it cannot be implemented by a flyweight bean");
+                }
+            }
+            bean = (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                Column column = getters.get(method);
+                if (column != null) {
+                    return column.get(row);
+                }
+                column = setters.get(method);
+                if (column != null) {
+                    column.set(row, args[0]);
+                    return null;
+                }
+                MethodHandle defaultMethod = defaultMethods.get(method);
+                if (defaultMethod != null) {
+                    return defaultMethod.invoke(proxy, args == null ? NO_ARGS : args);
+                }
+                switch (method.getName()) {
+                    case "toString":
+                        return rowToString(type);
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new IllegalStateException("Unexpected method " + method);
+                }
+            });
+        }
+        return bean;
+    }
+
+    private Column findColumn(Method method) {
+        String name = method.getName();
+        if (!PropertyName.isProperty(name) || name.equals("is") || name.equals("get") || name.equals("set")) {
+            return null;
+        }
+        String propertyName = PropertyName.methodToProperty(name);
+        for (Column column : store.getColumns()) {
+            if (column.getName().equals(propertyName)) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    private String rowToString(Class<?> type) {
+        StringBuilder sb = new StringBuilder(type.getSimpleName()).append("[row=").append(row);
+        for (Column column : store.getColumns()) {
+            sb.append(", ").append(column.getName()).append('=').append(column.get(row));
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * 接口中重新声明的 equals()/hashCode()/toString()
+     */
+    private static boolean isObjectMethod(Method method) {
+        String name = method.getName();
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        return name.equals("equals") && parameterTypes.length == 1 && parameterTypes[0] == Object.class
+                || (name.equals("hashCode") || name.equals("toString")) && parameterTypes.length == 0;
+    }
+
+    /**
+     * 生成调用接口中 default 方法实现的句柄，形式为 (Object proxy, Object[] args)Object
+     */
+    private static MethodHandle defaultMethodHandle(Class<?> type, Method method) {
+        try {
+            MethodHandle handle = privateLookupIn(type).unreflectSpecial(method, type);
+            return handle.asType(handle.type().generic()).asSpreader(Object[].class, method.getParameterCount());
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new ReflectionException("Could not bind default method " + method + " of flyweight bean. Cause: " + e, e);
+        }
+    }
+
+    /**
+     * 拥有 type 私有访问权限的 Lookup，unreflectSpecial() 需要它
+     */
+    private static MethodHandles.Lookup privateLookupIn(Class<?> type) throws ReflectiveOperationException {
+        try {
+            //Java 9 及以上
+            Method privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+            return (MethodHandles.Lookup) privateLookupIn.invoke(null, type, MethodHandles.lookup());
+        } catch (NoSuchMethodException e) {
+            //Java 8 只能通过私有构造器创建
+            Constructor<MethodHandles.Lookup> constructor =
+                    MethodHandles.Lookup.class.getDeclaredConstructor(Class.class, int.class);
+            constructor.setAccessible(true);
+            return constructor.newInstance(type, MethodHandles.Lookup.PRIVATE);
+        }
+    }
+}
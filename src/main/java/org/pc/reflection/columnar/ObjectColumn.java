@@ -0,0 +1,49 @@
+package org.pc.reflection.columnar;
+
+import org.pc.reflection.invoker.TypedGetter;
+import org.pc.reflection.invoker.TypedSetter;
+
+import java.util.Arrays;
+
+/**
+ * 引用类型属性的列，以 Object[] 存放
+ */
+public class ObjectColumn extends Column {
+    private final TypedGetter getter;
+    private final TypedSetter setter;
+    private Object[] values;
+
+    ObjectColumn(String name, Class<?> type, TypedGetter getter, TypedSetter setter, int capacity) {
+        super(name, type);
+        this.getter = getter;
+        this.setter = setter;
+        this.values = new Object[capacity];
+    }
+
+    @Override
+    public Object get(int row) {
+        return values[row];
+    }
+
+    @Override
+    public void set(int row, Object value) {
+        values[row] = value;
+    }
+
+    @Override
+    void load(Object bean, int row) {
+        values[row] = getter.get(bean);
+    }
+
+    @Override
+    void store(int row, Object bean) {
+        setter.set(bean, values[row]);
+    }
+
+    @Override
+    void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, Math.max(capacity, values.length * 2));
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package org.pc.reflection.columnar;
+
+import org.pc.reflection.invoker.TypedGetter;
+import org.pc.reflection.invoker.TypedSetter;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ *     基本类型属性的列，所有行的值连续存放在一个 ByteBuffer 中（堆内或堆外），对单个属性的扫描是顺序访问内存。
+ * getInt()/getLong()/getDouble() 等方法直接按列的类型读写，调用方需要保证与列的类型一致。
+ */
+public class PrimitiveColumn extends Column {
+    private final TypedGetter getter;
+    private final TypedSetter setter;
+    private final boolean offHeap;
+    /**
+     * 每个值占用的字节数
+     */
+    private final int width;
+    private ByteBuffer buffer;
+
+    PrimitiveColumn(String name, Class<?> type, TypedGetter getter, TypedSetter setter, int capacity, boolean offHeap) {
+        super(name, type);
+        this.getter = getter;
+        this.setter = setter;
+        this.offHeap = offHeap;
+        this.width = widthOf(type);
+        this.buffer = allocate(capacity * width);
+    }
+
+    private static int widthOf(Class<?> type) {
+        if (type == boolean.class || type == byte.class) {
+            return 1;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        }
+        return 8;
+    }
+
+    private ByteBuffer allocate(int bytes) {
+        ByteBuffer allocated = offHeap ? ByteBuffer.allocateDirect(bytes) : ByteBuffer.allocate(bytes);
+        return allocated.order(ByteOrder.nativeOrder());
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    public boolean getBoolean(int row) {
+        return buffer.get(row) != 0;
+    }
+
+    public void setBoolean(int row, boolean value) {
+        buffer.put(row, value ? (byte) 1 : (byte) 0);
+    }
+
+    public byte getByte(int row) {
+        return buffer.get(row);
+    }
+
+    public void setByte(int row, byte value) {
+        buffer.put(row, value);
+    }
+
+    public short getShort(int row) {
+        return buffer.getShort(row << 1);
+    }
+
+    public void setShort(int row, short value) {
+        buffer.putShort(row << 1, value);
+    }
+
+    public char getChar(int row) {
+        return buffer.getChar(row << 1);
+    }
+
+    public void setChar(int row, char value) {
+        buffer.putChar(row << 1, value);
+    }
+
+    public int getInt(int row) {
+        return buffer.getInt(row << 2);
+    }
+
+    public void setInt(int row, int value) {
+        buffer.putInt(row << 2, value);
+    }
+
+    public float getFloat(int row) {
+        return buffer.getFloat(row << 2);
+    }
+
+    public void setFloat(int row, float value) {
+        buffer.putFloat(row << 2, value);
+    }
+
+    public long getLong(int row) {
+        return buffer.getLong(row << 3);
+    }
+
+    public void setLong(int row, long value) {
+        buffer.putLong(row << 3, value);
+    }
+
+    public double getDouble(int row) {
+        return buffer.getDouble(row << 3);
+    }
+
+    public void setDouble(int row, double value) {
+        buffer.putDouble(row << 3, value);
+    }
+
+    @Override
+    public Object get(int row) {
+        Class<?> type = getType();
+        if (type == int.class) {
+            return getInt(row);
+        } else if (type == long.class) {
+            return getLong(row);
+        } else if (type == double.class) {
+            return getDouble(row);
+        } else if (type == boolean.class) {
+            return getBoolean(row);
+        } else if (type == float.class) {
+            return getFloat(row);
+        } else if (type == short.class) {
+            return getShort(row);
+        } else if (type == byte.class) {
+            return getByte(row);
+        }
+        return getChar(row);
+    }
+
+    @Override
+    public void set(int row, Object value) {
+        Class<?> type = getType();
+        if (type == int.class) {
+            setInt(row, (Integer) value);
+        } else if (type == long.class) {
+            setLong(row, (Long) value);
+        } else if (type == double.class) {
+            setDouble(row, (Double) value);
+        } else if (type == boolean.class) {
+            setBoolean(row, (Boolean) value);
+        } else if (type == float.class) {
+            setFloat(row, (Float) value);
+        } else if (type == short.class) {
+            setShort(row, (Short) value);
+        } else if (type == byte.class) {
+            setByte(row, (Byte) value);
+        } else {
+            setChar(row, (Character) value);
+        }
+    }
+
+    @Override
+    void load(Object bean, int row) {
+        switch (width) {
+            case 1:
+                if (getType() == boolean.class) {
+                    setBoolean(row, getter.getBoolean(bean));
+                } else {
+                    setByte(row, getter.getByte(bean));
+                }
+                break;
+            case 2:
+                if (getType() == char.class) {
+                    setChar(row, getter.getChar(bean));
+                } else {
+                    setShort(row, getter.getShort(bean));
+                }
+                break;
+            case 4:
+                if (getType() == float.class) {
+                    setFloat(row, getter.getFloat(bean));
+                } else {
+                    setInt(row, getter.getInt(bean));
+                }
+                break;
+            default:
+                if (getType() == double.class) {
+                    setDouble(row, getter.getDouble(bean));
+                } else {
+                    setLong(row, getter.getLong(bean));
+                }
+        }
+    }
+
+    @Override
+    void store(int row, Object bean) {
+        switch (width) {
+            case 1:
+                if (getType() == boolean.class) {
+                    setter.setBoolean(bean, getBoolean(row));
+                } else {
+                    setter.setByte(bean, getByte(row));
+                }
+                break;
+            case 2:
+                if (getType() == char.class) {
+                    setter.setChar(bean, getChar(row));
+                } else {
+                    setter.setShort(bean, getShort(row));
+                }
+                break;
+            case 4:
+                if (getType() == float.class) {
+                    setter.setFloat(bean, getFloat(row));
+                } else {
+                    setter.setInt(bean, getInt(row));
+                }
+                break;
+            default:
+                if (getType() == double.class) {
+                    setter.setDouble(bean, getDouble(row));
+                } else {
+                    setter.setLong(bean, getLong(row));
+                }
+        }
+    }
+
+    @Override
+    void ensureCapacity(int capacity) {
+        int bytes = capacity * width;
+        if (bytes > buffer.capacity()) {
+            ByteBuffer grown = allocate(Math.max(bytes, buffer.capacity() * 2));
+            ByteBuffer old = buffer.duplicate();
+            old.clear();
+            grown.put(old);
+            grown.clear();
+            buffer = grown;
+        }
+    }
+}
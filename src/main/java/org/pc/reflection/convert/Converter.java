@@ -0,0 +1,8 @@
+package org.pc.reflection.convert;
+
+/**
+ * 将一个非 null 的值转换成目标类型
+ */
+public interface Converter {
+    Object convert(Object value);
+}
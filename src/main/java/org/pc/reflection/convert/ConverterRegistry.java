@@ -0,0 +1,231 @@
+package org.pc.reflection.convert;
+
+import org.pc.reflection.Reflector;
+import org.pc.reflection.exception.ReflectionException;
+import org.pc.reflection.invoker.Invoker;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ *     类型转换器的注册表。每个（源类型，目标类型）组合只查找一次转换器，查找顺序为：
+ *     1、源类型可以直接赋值给目标类型，不需要转换；
+ *     2、通过 register() 注册的转换器，先按源类型精确匹配，再依次匹配其父类和接口；
+ *     3、内置的转换：数值类型之间（整数收窄时检查溢出）、String 与数值/Boolean/Character/枚举/BigDecimal/
+ *        BigInteger/java.time/Date 之间，以及任意类型 --> String。
+ *     bindSetter() 将转换器与 Reflector 中的 setter 绑定在一起，类型本来就匹配时直接返回原来的 setter Invoker。
+ */
+public class ConverterRegistry {
+    /**
+     * 不需要转换
+     */
+    static final Converter IDENTITY = value -> value;
+    /**
+     * 缓存中表示找不到转换器
+     */
+    private static final Converter NONE = value -> {
+        throw new IllegalStateException();
+    };
+
+    private static final Map<Class<?>, Class<?>> WRAPPERS = new HashMap<>();
+
+    static {
+        WRAPPERS.put(boolean.class, Boolean.class);
+        WRAPPERS.put(byte.class, Byte.class);
+        WRAPPERS.put(short.class, Short.class);
+        WRAPPERS.put(char.class, Character.class);
+        WRAPPERS.put(int.class, Integer.class);
+        WRAPPERS.put(long.class, Long.class);
+        WRAPPERS.put(float.class, Float.class);
+        WRAPPERS.put(double.class, Double.class);
+    }
+
+    private final ConcurrentMap<Class<?>, Map<Class<?>, Converter>> registered = new ConcurrentHashMap<>();
+    private final ConcurrentMap<List<Class<?>>, Converter> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * 注册自定义转换器，会覆盖内置的转换
+     */
+    public <S, T> void register(Class<S> sourceType, Class<T> targetType, Converter converter) {
+        registered.computeIfAbsent(wrap(sourceType), k -> new ConcurrentHashMap<>()).put(wrap(targetType), converter);
+        resolved.clear();
+    }
+
+    /**
+     * 查找转换器，结果会被缓存
+     * @return 找不到时返回 null
+     */
+    public Converter find(Class<?> sourceType, Class<?> targetType) {
+        Converter converter = resolved.computeIfAbsent(Arrays.asList(sourceType, targetType),
+                k -> {
+                    Converter c = lookup(wrap(sourceType), wrap(targetType));
+                    return c == null ? NONE : c;
+                });
+        return converter == NONE ? null : converter;
+    }
+
+    /**
+     * 对值做类型转换，null 原样返回
+     */
+    public Object convert(Object value, Class<?> targetType) {
+        if (value == null) {
+            return null;
+        }
+        Converter converter = find(value.getClass(), targetType);
+        if (converter == null) {
+            throw new ReflectionException("No converter from " + value.getClass().getName() + " to " + targetType.getName());
+        }
+        return converter.convert(value);
+    }
+
+    /**
+     * 将转换器与属性的 setter 绑定
+     * @param sourceType 传入 setter 的值的类型，为 null 表示不确定，此时按每次传入的值的实际类型查找
+     * @return 类型本来就匹配时返回原来的 setter Invoker，否则返回 ConvertingSetInvoker
+     */
+    public Invoker bindSetter(Reflector reflector, String propertyName, Class<?> sourceType) {
+        Invoker setter = reflector.getSetInvoker(propertyName);
+        Class<?> targetType = reflector.getSetterTypes(propertyName);
+        if (sourceType == null) {
+            return new ConvertingSetInvoker(setter, targetType, this, null);
+        }
+        Converter converter = find(sourceType, targetType);
+        if (converter == null) {
+            throw new ReflectionException("No converter from " + sourceType.getName() + " to " + targetType.getName()
+                    + " for property '" + propertyName + "' of " + reflector.getType());
+        }
+        return converter == IDENTITY ? setter : new ConvertingSetInvoker(setter, targetType, this, converter);
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        Class<?> wrapper = WRAPPERS.get(type);
+        return wrapper != null ? wrapper : type;
+    }
+
+    private Converter lookup(Class<?> sourceType, Class<?> targetType) {
+        if (targetType.isAssignableFrom(sourceType)) {
+            return IDENTITY;
+        }
+        Converter converter = findRegistered(sourceType, targetType);
+        if (converter != null) {
+            return converter;
+        }
+        return builtIn(sourceType, targetType);
+    }
+
+    private Converter findRegistered(Class<?> sourceType, Class<?> targetType) {
+        for (Class<?> current = sourceType; current != null; current = current.getSuperclass()) {
+            Map<Class<?>, Converter> converters = registered.get(current);
+            if (converters != null && converters.containsKey(targetType)) {
+                return converters.get(targetType);
+            }
+            for (Class<?> anInterface : current.getInterfaces()) {
+                converters = registered.get(anInterface);
+                if (converters != null && converters.containsKey(targetType)) {
+                    return converters.get(targetType);
+                }
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Converter builtIn(Class<?> sourceType, Class<?> targetType) {
+        if (targetType == String.class) {
+            return String::valueOf;
+        }
+        if (Number.class.isAssignableFrom(sourceType)) {
+            return numberConverter(targetType);
+        }
+        if (sourceType == String.class) {
+            if (targetType.isEnum()) {
+                return value -> Enum.valueOf((Class) targetType, ((String) value).trim());
+            } else if (targetType == Boolean.class) {
+                return value -> Boolean.valueOf(((String) value).trim());
+            } else if (targetType == Character.class) {
+                return value -> {
+                    String s = (String) value;
+                    if (s.length() != 1) {
+                        throw new ReflectionException("Cannot convert '" + s + "' to Character");
+                    }
+                    return s.charAt(0);
+                };
+            } else if (targetType == LocalDate.class) {
+                return value -> LocalDate.parse(((String) value).trim());
+            } else if (targetType == LocalDateTime.class) {
+                return value -> LocalDateTime.parse(((String) value).trim());
+            } else if (targetType == Instant.class) {
+                return value -> Instant.parse(((String) value).trim());
+            } else if (targetType == Date.class) {
+                return value -> Date.from(Instant.parse(((String) value).trim()));
+            }
+            Converter numberConverter = numberConverter(targetType);
+            if (numberConverter != null) {
+                return value -> numberConverter.convert(new BigDecimal(((String) value).trim()));
+            }
+        }
+        if (sourceType == Character.class) {
+            Converter numberConverter = numberConverter(targetType);
+            if (numberConverter != null) {
+                return value -> numberConverter.convert((int) (Character) value);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 任意 Number --> 目标数值类型，整数收窄时超出范围会抛出异常，而不是静默截断
+     */
+    private static Converter numberConverter(Class<?> targetType) {
+        if (targetType == Integer.class) {
+            return value -> (int) checkRange((Number) value, Integer.MIN_VALUE, Integer.MAX_VALUE, targetType);
+        } else if (targetType == Long.class) {
+            return value -> checkRange((Number) value, Long.MIN_VALUE, Long.MAX_VALUE, targetType);
+        } else if (targetType == Short.class) {
+            return value -> (short) checkRange((Number) value, Short.MIN_VALUE, Short.MAX_VALUE, targetType);
+        } else if (targetType == Byte.class) {
+            return value -> (byte) checkRange((Number) value, Byte.MIN_VALUE, Byte.MAX_VALUE, targetType);
+        } else if (targetType == Double.class) {
+            return value -> ((Number) value).doubleValue();
+        } else if (targetType == Float.class) {
+            return value -> ((Number) value).floatValue();
+        } else if (targetType == BigDecimal.class) {
+            return value -> value instanceof BigInteger ? new BigDecimal((BigInteger) value) : new BigDecimal(value.toString());
+        } else if (targetType == BigInteger.class) {
+            return value -> toBigDecimal((Number) value).toBigIntegerExact();
+        }
+        return null;
+    }
+
+    private static long checkRange(Number value, long min, long max, Class<?> targetType) {
+        long result;
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            result = value.longValue();
+        } else {
+            try {
+                result = toBigDecimal(value).longValueExact();
+            } catch (ArithmeticException e) {
+                throw new ReflectionException("Cannot convert " + value + " to " + targetType.getName() + " exactly", e);
+            }
+        }
+        if (result < min || result > max) {
+            throw new ReflectionException("Value " + value + " is out of range for " + targetType.getName());
+        }
+        return result;
+    }
+
+    private static BigDecimal toBigDecimal(Number value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        }
+        return new BigDecimal(value.toString());
+    }
+}
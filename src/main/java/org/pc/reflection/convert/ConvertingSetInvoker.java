@@ -0,0 +1,73 @@
+package org.pc.reflection.convert;
+
+import org.pc.reflection.exception.ReflectionException;
+import org.pc.reflection.invoker.Invoker;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ *     先做类型转换再调用 setter 的 Invoker。转换器在创建时已经按（源类型，setter 类型）确定，调用时不再做类型判断；
+ * 源类型不确定时（sourceType 为 null），按实际值的类型查找转换器，并缓存最近一次的结果。
+ *     目标类型使用 Reflector 解析后的 setter 类型，而不是 setter 擦除后的参数类型：父类中的 setId(T) 在子类
+ * Entity extends Base&lt;Long&gt; 中的目标类型是 Long，而不是 Object。
+ */
+public class ConvertingSetInvoker implements Invoker {
+    private final Invoker setter;
+    private final ConverterRegistry registry;
+    private final Converter converter;
+    /**
+     * 解析泛型之后的 setter 类型
+     */
+    private final Class<?> targetType;
+    /**
+     * 源类型不确定时，最近一次的源类型及其转换器
+     */
+    private volatile Resolved lastResolved;
+
+    ConvertingSetInvoker(Invoker setter, Class<?> targetType, ConverterRegistry registry, Converter converter) {
+        this.setter = setter;
+        this.targetType = targetType;
+        this.registry = registry;
+        this.converter = converter;
+    }
+
+    @Override
+    public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+        Object value = args[0];
+        if (value != null) {
+            Converter c = converter != null ? converter : resolve(value.getClass());
+            if (c != ConverterRegistry.IDENTITY) {
+                return setter.invoke(target, new Object[]{c.convert(value)});
+            }
+        }
+        return setter.invoke(target, args);
+    }
+
+    private Converter resolve(Class<?> sourceType) {
+        Resolved resolved = lastResolved;
+        if (resolved == null || resolved.sourceType != sourceType) {
+            Converter c = registry.find(sourceType, targetType);
+            if (c == null) {
+                throw new ReflectionException("No converter from " + sourceType.getName() + " to "
+                        + targetType.getName());
+            }
+            lastResolved = resolved = new Resolved(sourceType, c);
+        }
+        return resolved.converter;
+    }
+
+    @Override
+    public Class<?> getType() {
+        return setter.getType();
+    }
+
+    private static final class Resolved {
+        private final Class<?> sourceType;
+        private final Converter converter;
+
+        private Resolved(Class<?> sourceType, Converter converter) {
+            this.sourceType = sourceType;
+            this.converter = converter;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.pc.reflection.factory;
+
+import org.pc.reflection.exception.ReflectionException;
+
+import java.beans.ConstructorProperties;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.*;
+
+/**
+ *     通过构造器一次性创建并填充对象，主要用于不可变类和全参构造的类。构造器的每个参数对应一个属性，
+ * 参数的位置就是该属性的槽位（slot），调用方按槽位准备好 Object[]，调用一次 newInstance() 即可得到对象，
+ * 无需再逐个调用 setter。
+ */
+public class ConstructorInstantiator {
+    private static final MethodType INSTANTIATOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private final Constructor<?> constructor;
+    /**
+     * 下标即槽位，值为该槽位对应的属性名
+     */
+    private final String[] propertyNames;
+    private final Map<String, Integer> slots = new HashMap<>();
+    /**
+     * 适配成 (Object[])Object 的构造器句柄
+     */
+    private final MethodHandle handle;
+
+    private ConstructorInstantiator(Constructor<?> constructor, String[] propertyNames) throws IllegalAccessException {
+        this.constructor = constructor;
+        this.propertyNames = propertyNames;
+        for (int i = 0; i < propertyNames.length; i++) {
+            slots.put(propertyNames[i], i);
+        }
+        MethodHandle ctorHandle = MethodHandles.lookup().unreflectConstructor(constructor);
+        ctorHandle = ctorHandle.asType(ctorHandle.type().generic());
+        this.handle = ctorHandle.asSpreader(Object[].class, propertyNames.length).asType(INSTANTIATOR_TYPE);
+    }
+
+    /**
+     *     查找与属性匹配的构造器，参数名按以下方式确定：
+     *     1、构造器上标注了 @ConstructorProperties，按其中声明的属性名匹配（参数个数必须与属性名个数相同）；
+     *     2、编译时带了 -parameters 参数，则按参数名匹配，每个参数都必须有同名同类型的属性。
+     * 标注了 @ConstructorProperties 的构造器优先；多个构造器都匹配时，选择参数最多的那个。
+     *     JVM 规范没有规定 Class#getDeclaredFields() 返回的顺序，因此不会按字段的声明顺序猜测参数对应的属性；
+     * 两种方式都不可用时抛出 ReflectionException。
+     * @param type 待创建的类
+     * @return 对应的 ConstructorInstantiator
+     */
+    public static ConstructorInstantiator forClass(Class<?> type) {
+        Map<String, Field> fieldsByName = new HashMap<>();
+        Class<?> current = type;
+        while (current != null) {
+            for (Field field : current.getDeclaredFields()) {
+                if (isInstanceField(field)) {
+                    //子类属性优先
+                    fieldsByName.putIfAbsent(field.getName(), field);
+                }
+            }
+            current = current.getSuperclass();
+        }
+
+        Constructor<?> annotatedMatch = null;
+        String[] annotatedProperties = null;
+        Constructor<?> namedMatch = null;
+        String[] namedProperties = null;
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            int parameterCount = constructor.getParameterCount();
+            if (parameterCount == 0 || constructor.isSynthetic()) {
+                continue;
+            }
+            ConstructorProperties annotation = constructor.getAnnotation(ConstructorProperties.class);
+            if (annotation != null) {
+                if (annotation.value().length != parameterCount) {
+                    throw new ReflectionException("@ConstructorProperties of " + constructor + " declares "
+                            + annotation.value().length + " names for " + parameterCount + " parameters");
+                }
+                if (annotatedMatch == null || parameterCount > annotatedMatch.getParameterCount()) {
+                    annotatedMatch = constructor;
+                    annotatedProperties = annotation.value().clone();
+                }
+                continue;
+            }
+            String[] names = matchByName(constructor, fieldsByName);
+            if (names != null && (namedMatch == null || parameterCount > namedMatch.getParameterCount())) {
+                namedMatch = constructor;
+                namedProperties = names;
+            }
+        }
+        Constructor<?> match = annotatedMatch != null ? annotatedMatch : namedMatch;
+        if (match == null) {
+            throw new ReflectionException("There is no constructor matching the properties of " + type
+                    + ", annotate the constructor with @java.beans.ConstructorProperties or compile with -parameters");
+        }
+        try {
+            match.setAccessible(true);
+            return new ConstructorInstantiator(match, annotatedMatch != null ? annotatedProperties : namedProperties);
+        } catch (Exception e) {
+            throw new ReflectionException("Could not access constructor " + match + ". Cause: " + e, e);
+        }
+    }
+
+    private static boolean isInstanceField(Field field) {
+        return !Modifier.isStatic(field.getModifiers()) && !field.isSynthetic();
+    }
+
+    private static String[] matchByName(Constructor<?> constructor, Map<String, Field> fieldsByName) {
+        Parameter[] parameters = constructor.getParameters();
+        String[] names = new String[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            if (!parameters[i].isNamePresent()) {
+                return null;
+            }
+            Field field = fieldsByName.get(parameters[i].getName());
+            if (field == null || field.getType() != parameters[i].getType()) {
+                return null;
+            }
+            names[i] = field.getName();
+        }
+        return names;
+    }
+
+    /**
+     * 按槽位传入属性值，一次调用完成对象的创建和填充
+     * @param values 属性值，长度必须等于槽位数
+     * @return 创建的对象
+     */
+    public Object newInstance(Object[] values) {
+        try {
+            return (Object) handle.invokeExact(values);
+        } catch (Throwable t) {
+            throw new ReflectionException("Error instantiating " + constructor.getDeclaringClass() + " with values ("
+                    + Arrays.toString(values) + "). Cause: " + t, t);
+        }
+    }
+
+    public Constructor<?> getConstructor() {
+        return constructor;
+    }
+
+    public String[] getPropertyNames() {
+        return propertyNames.clone();
+    }
+
+    public Class<?>[] getParameterTypes() {
+        return constructor.getParameterTypes();
+    }
+
+    public int getSlotCount() {
+        return propertyNames.length;
+    }
+
+    /**
+     * @return 属性对应的槽位，没有则返回 -1
+     */
+    public int getSlot(String propertyName) {
+        Integer slot = slots.get(propertyName);
+        return slot == null ? -1 : slot;
+    }
+}
@@ -1,15 +1,32 @@
 package org.pc.reflection.factory;
 
+import org.pc.reflection.Reflector;
 import org.pc.reflection.exception.ReflectionException;
 
 import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * 创建指定类型的对象
  */
 public class DefaultObjectFctory implements ObjectFctory, Serializable {
+    //用于查找并缓存构造器元信息，未设置（包括反序列化之后）时使用共享的 DefaultReflectorFactory#getDefault()
+    private transient volatile ReflectorFactory reflectorFactory;
+
+    public ReflectorFactory getReflectorFactory() {
+        ReflectorFactory factory = reflectorFactory;
+        return factory != null ? factory : DefaultReflectorFactory.getDefault();
+    }
+
+    public void setReflectorFactory(ReflectorFactory reflectorFactory) {
+        this.reflectorFactory = reflectorFactory;
+    }
+
     @Override
     public void setProperties(Properties properties) {
 
@@ -27,21 +44,63 @@ public class DefaultObjectFctory implements ObjectFctory, Serializable {
         return (T) instantiateClass(classToCreate, constructorArgTypes, constructorArgs);
     }
 
+    /**
+     * 查找与属性匹配的构造器，可以通过 ConstructorInstantiator#getSlot() 得到各属性值在数组中的位置
+     */
+    public ConstructorInstantiator findConstructorInstantiator(Class<?> type) {
+        return getReflectorFactory().findForClass(resolveInterface(type)).getConstructorInstantiator();
+    }
+
+    /**
+     * 通过与属性匹配的构造器一次性创建并填充对象
+     * @param type 待创建的类
+     * @param propertyValues 按槽位排列的属性值
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T create(Class<T> type, Object[] propertyValues) {
+        return (T) findConstructorInstantiator(type).newInstance(propertyValues);
+    }
+
+    /**
+     * 通过 Reflector 缓存的无参构造器创建对象，适合已经持有 Reflector 的调用方，每次创建时不再查找构造器
+     */
+    public Object create(Reflector reflector) {
+        try {
+            return reflector.getDefaultConstructor().newInstance();
+        } catch (ReflectionException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ReflectionException("Error instantiating " + reflector.getType() + ". Cause: " + e, e);
+        }
+    }
+
     @Override
     public <T> boolean isCollection(Class<T> type) {
         return Collection.class.isAssignableFrom(type);
     }
 
-    private Class<?> resolveInterface(Class<?> type) {
+    /**
+     * 将集合接口转换成默认的实现类，例如 List --> ArrayList，Queue/Deque --> LinkedList，其他类型原样返回
+     */
+    public Class<?> resolveInterface(Class<?> type) {
         Class<?> classToCreate;
         if (type == List.class || type == Collection.class || type == Iterable.class) {
             classToCreate = ArrayList.class;
         } else if (type == Map.class) {
             classToCreate = HashMap.class;
-        } else if (type == SortedSet.class) {
+        } else if (type == SortedMap.class || type == NavigableMap.class) {
+            classToCreate = TreeMap.class;
+        } else if (type == ConcurrentMap.class) {
+            classToCreate = ConcurrentHashMap.class;
+        } else if (type == ConcurrentNavigableMap.class) {
+            classToCreate = ConcurrentSkipListMap.class;
+        } else if (type == SortedSet.class || type == NavigableSet.class) {
             classToCreate = TreeSet.class;
         } else if (type == Set.class) {
             classToCreate = HashSet.class;
+        } else if (type == Queue.class || type == Deque.class) {
+            //LinkedList 允许 null 元素，ArrayDeque 不允许
+            classToCreate = LinkedList.class;
         } else {
             classToCreate = type;
         }
@@ -51,8 +110,12 @@ public class DefaultObjectFctory implements ObjectFctory, Serializable {
     private <T> T instantiateClass(Class<T> clazz, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
         try {
             Constructor<T> constructor;
-            //无参构造函数
+            //无参构造函数，优先使用 Reflector 缓存的构造器
             if (constructorArgTypes == null || constructorArgs == null) {
+                Reflector reflector = getReflectorFactory().findForClass(clazz);
+                if (reflector.hasDefaultConstructor()) {
+                    return clazz.cast(reflector.getDefaultConstructor().newInstance());
+                }
                 constructor = clazz.getDeclaredConstructor();
                 if (!constructor.isAccessible()) {
                     constructor.setAccessible(true);
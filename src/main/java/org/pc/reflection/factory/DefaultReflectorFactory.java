@@ -1,16 +1,62 @@
 package org.pc.reflection.factory;
 
 import org.pc.reflection.Reflector;
+import org.pc.reflection.invoker.AdaptiveInvoker;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DefaultReflectorFactory implements ReflectorFactory {
+    //超出上限而未被缓存的 Reflector 最多保留的个数
+    private static final int MAX_REJECTED = 64;
+
     //是否开启对 Reflector 对象的缓存
     private boolean classCacheEnabled = true;
+    //Invoker 升级为 MethodHandle 调用的阈值，小于 0 表示不升级
+    private int invokerThreshold = AdaptiveInvoker.DEFAULT_THRESHOLD;
+    //缓存占用内存的上限（字节），小于等于 0 表示不限制
+    private volatile long maxRetainedSize;
+    //已缓存的 Reflector 在放入缓存时估算的内存之和
+    private final AtomicLong retainedSize = new AtomicLong();
+    //本工厂创建 Reflector 的次数
+    private final AtomicLong buildCount = new AtomicLong();
     private final ConcurrentMap<Class<?>, Reflector> reflectorMap = new ConcurrentHashMap<>();
+    //因超出上限而未被缓存的 Reflector，避免同一个类每次都重新创建；个数达到 MAX_REJECTED 时整体清空
+    private final ConcurrentMap<Class<?>, Reflector> rejectedMap = new ConcurrentHashMap<>();
+    //共享的父工厂，公共类加载器可见的类交给它缓存，本工厂只缓存模块自己的类
+    private final SharedReflectorFactory parent;
 
     public DefaultReflectorFactory() {
+        this(null);
+    }
+
+    /**
+     *     共享的默认工厂，供 BeanDiffer#forClass(Class)、PropertyCopier 等没有传入 ReflectorFactory 的静态方法使用，
+     * 这些工具类通过它得到的 Reflector 与通过同一个工厂得到的是同一个对象，也可以交给 WarmupProfile 记录和预热。
+     *     与普通的工厂不同，它通过 ClassValue 把 Reflector（以及通过 Reflector#getPlan() 缓存的执行计划）挂在类上，
+     * 不会阻止类及其类加载器被卸载，因此不支持设置缓存上限。模块需要统计或限制缓存时，应当创建自己的工厂并显式传入。
+     */
+    public static DefaultReflectorFactory getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * @param parent 共享的父工厂，为 null 时所有类都缓存在本工厂
+     */
+    public DefaultReflectorFactory(SharedReflectorFactory parent) {
+        this.parent = parent;
+    }
+
+    public SharedReflectorFactory getParent() {
+        return parent;
     }
 
     @Override
@@ -23,17 +69,179 @@ public class DefaultReflectorFactory implements ReflectorFactory {
         this.classCacheEnabled = classCachedEnabled;
     }
 
+    public int getInvokerThreshold() {
+        return invokerThreshold;
+    }
+
+    /**
+     * 设置 Invoker 升级阈值，只对之后创建的 Reflector 生效
+     */
+    public void setInvokerThreshold(int invokerThreshold) {
+        this.invokerThreshold = invokerThreshold;
+    }
+
+    public long getMaxRetainedSize() {
+        return maxRetainedSize;
+    }
+
+    /**
+     *     设置缓存占用内存的上限（字节），小于等于 0 表示不限制。在放入缓存时检查，超出上限的 Reflector 照常返回，
+     * 但不会进入主缓存，而是放入一个最多 MAX_REJECTED 个的小缓存，满了之后整体清空；已缓存的 Reflector
+     * 不会因为调小上限而被移除。
+     */
+    public void setMaxRetainedSize(long maxRetainedSize) {
+        this.maxRetainedSize = maxRetainedSize;
+        //上限变化后，之前被拒绝的类可能可以缓存了
+        rejectedMap.clear();
+    }
+
+    /**
+     *     已缓存的 Reflector 占用内存的估算值之和（字节），按放入缓存时的估算值计算。
+     *     不包括 Reflector 中按需创建的部分（见 Reflector#estimateRetainedSize()），也不包括 Reflector 内部按类缓存的
+     * 方法表（DECLARED_METHODS、UNIQUE_METHODS、CLASS_METHODS）：它们挂在 Class 上，由所有工厂共享，随类的卸载而释放，
+     * 无法归属到某一个工厂。
+     */
+    public long getRetainedSize() {
+        return retainedSize.get();
+    }
+
+    /**
+     * 本工厂创建 Reflector 的次数，包括未缓存的，开启缓存时减去缓存的个数即为重复创建的次数
+     */
+    public long getBuildCount() {
+        return buildCount.get();
+    }
+
+    /**
+     * 当前缓存中的所有 Reflector（只读视图），不包括父工厂中的
+     */
+    public Collection<Reflector> getCachedReflectors() {
+        return Collections.unmodifiableCollection(reflectorMap.values());
+    }
+
+    /**
+     * 按当前估算的内存从大到小，返回占用内存最多的前 limit 个 Reflector，用于排查异常庞大的类（例如生成的类）
+     */
+    public List<Reflector> getLargestReflectors(int limit) {
+        List<Reflector> reflectors = new ArrayList<>(getCachedReflectors());
+        reflectors.sort(Comparator.comparingLong(Reflector::estimateRetainedSize).reversed());
+        return reflectors.size() > limit ? new ArrayList<>(reflectors.subList(0, limit)) : reflectors;
+    }
+
     @Override
     public Reflector findForClass(Class<?> type) {
+        if (parent != null && parent.isShared(type)) {
+            return parent.findForClass(type);
+        }
         if (classCacheEnabled) {
+            //命中缓存时不加锁
             Reflector cacheReflector = reflectorMap.get(type);
-            if (cacheReflector == null) {
-                cacheReflector = new Reflector(type);
-                reflectorMap.put(type, cacheReflector);
+            if (cacheReflector != null) {
+                return cacheReflector;
+            }
+            cacheReflector = rejectedMap.get(type);
+            if (cacheReflector != null) {
+                return cacheReflector;
             }
-            return cacheReflector;
+            //同一个类只会被一个线程创建，其他线程等待创建完成，避免并发冷启动时重复创建
+            Reflector[] uncached = new Reflector[1];
+            cacheReflector = reflectorMap.computeIfAbsent(type, t -> {
+                Reflector reflector = newReflector(t);
+                //超出上限时不缓存
+                if (!reserve(reflector.estimateRetainedSize())) {
+                    uncached[0] = reflector;
+                    return null;
+                }
+                return reflector;
+            });
+            if (cacheReflector != null) {
+                return cacheReflector;
+            }
+            if (rejectedMap.size() >= MAX_REJECTED) {
+                rejectedMap.clear();
+            }
+            Reflector rejected = rejectedMap.putIfAbsent(type, uncached[0]);
+            return rejected != null ? rejected : uncached[0];
         } else {
-            return new Reflector(type);
+            return newReflector(type);
+        }
+    }
+
+    /**
+     * 创建 Reflector 并计数
+     */
+    protected Reflector newReflector(Class<?> type) {
+        buildCount.incrementAndGet();
+        return new Reflector(type, invokerThreshold);
+    }
+
+    private boolean reserve(long size) {
+        long limit = maxRetainedSize;
+        if (limit <= 0) {
+            retainedSize.addAndGet(size);
+            return true;
+        }
+        while (true) {
+            long current = retainedSize.get();
+            if (current + size > limit) {
+                return false;
+            }
+            if (retainedSize.compareAndSet(current, current + size)) {
+                return true;
+            }
+        }
+    }
+
+    private static final class DefaultHolder {
+        private static final DefaultReflectorFactory INSTANCE = new ClassValueReflectorFactory();
+    }
+
+    /**
+     * getDefault() 使用的工厂：Reflector 缓存在 ClassValue 中，随类一起卸载
+     */
+    private static final class ClassValueReflectorFactory extends DefaultReflectorFactory {
+        private final ClassValue<Reflector> reflectors = new ClassValue<Reflector>() {
+            @Override
+            protected Reflector computeValue(Class<?> type) {
+                Reflector reflector = newReflector(type);
+                live.add(reflector);
+                return reflector;
+            }
+        };
+        //只用于 getCachedReflectors() 等统计，弱引用不会阻止 Reflector 随类一起被回收
+        private final Set<Reflector> live = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+        @Override
+        public Reflector findForClass(Class<?> type) {
+            return isClassCachedEnabled() ? reflectors.get(type) : newReflector(type);
+        }
+
+        /**
+         * @throws UnsupportedOperationException 缓存随类卸载释放，不支持设置上限
+         */
+        @Override
+        public void setMaxRetainedSize(long maxRetainedSize) {
+            throw new UnsupportedOperationException("The default reflector factory releases reflectors together with "
+                    + "their classes and has no size limit, create a DefaultReflectorFactory to limit the cache");
+        }
+
+        /**
+         * 当前仍然存活的 Reflector 的估算值之和
+         */
+        @Override
+        public long getRetainedSize() {
+            long size = 0;
+            for (Reflector reflector : getCachedReflectors()) {
+                size += reflector.estimateRetainedSize();
+            }
+            return size;
+        }
+
+        @Override
+        public Collection<Reflector> getCachedReflectors() {
+            synchronized (live) {
+                return Collections.unmodifiableList(new ArrayList<>(live));
+            }
         }
     }
 }
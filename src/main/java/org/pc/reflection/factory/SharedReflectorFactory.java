@@ -0,0 +1,58 @@
+package org.pc.reflection.factory;
+
+import org.pc.reflection.Reflector;
+
+/**
+ *     多个模块（或租户）共用的父 ReflectorFactory，只缓存公共类加载器可见的类，例如 JDK 中的集合、java.time 以及
+ * 公共依赖中的 DTO。各模块的 DefaultReflectorFactory 以它为父工厂，公共类的 Reflector 只会创建一次，
+ * 而模块自己的类仍然缓存在模块的工厂中，不会因为父工厂持有它们而导致模块的类加载器无法卸载。
+ */
+public class SharedReflectorFactory extends DefaultReflectorFactory {
+    private final ClassLoader sharedClassLoader;
+
+    /**
+     * 以加载本类的类加载器作为公共类加载器
+     */
+    public SharedReflectorFactory() {
+        this(SharedReflectorFactory.class.getClassLoader());
+    }
+
+    /**
+     * @param sharedClassLoader 公共类加载器，由它或它的父加载器加载的类会被共享，为 null 时只共享启动类加载器加载的类
+     */
+    public SharedReflectorFactory(ClassLoader sharedClassLoader) {
+        this.sharedClassLoader = sharedClassLoader;
+    }
+
+    public ClassLoader getSharedClassLoader() {
+        return sharedClassLoader;
+    }
+
+    /**
+     * 判断类是否由公共类加载器或其父加载器加载，数组按其元素类型判断
+     */
+    public boolean isShared(Class<?> type) {
+        ClassLoader classLoader = type.getClassLoader();
+        //启动类加载器加载的类（包括基本类型）对所有模块都可见
+        if (classLoader == null) {
+            return true;
+        }
+        for (ClassLoader loader = sharedClassLoader; loader != null; loader = loader.getParent()) {
+            if (loader == classLoader) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 公共类从缓存中查找，其他类每次都创建新的 Reflector 且不缓存
+     */
+    @Override
+    public Reflector findForClass(Class<?> type) {
+        if (isShared(type)) {
+            return super.findForClass(type);
+        }
+        return newReflector(type);
+    }
+}
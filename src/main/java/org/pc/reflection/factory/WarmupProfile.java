@@ -0,0 +1,207 @@
+package org.pc.reflection.factory;
+
+import org.pc.reflection.Reflector;
+import org.pc.reflection.exception.ReflectionException;
+import org.pc.reflection.invoker.AdaptiveInvoker;
+import org.pc.reflection.invoker.Invoker;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ *     预热配置：记录一次运行中被反射过的类，以及实际被调用过的属性（取自 AdaptiveInvoker 的调用计数，记录本身不会
+ * 增加调用的开销），保存为本地文件；下次启动时回放，预先创建这些类的 Reflector，并把调用过的属性升级为
+ * MethodHandle 调用，避免刚启动时请求的延迟抖动，又不需要预热整个 classpath。
+ *     文件为 UTF-8 文本，每行一项，字段以制表符分隔：
+ * <pre>
+ *     类名
+ *     类名    get    属性名    调用次数
+ *     类名    set    属性名    调用次数
+ * </pre>
+ *     只能记录开启了缓存的 DefaultReflectorFactory（及其父工厂）中的 Reflector。
+ */
+public class WarmupProfile {
+    private static final String COMMENT = "#";
+    private static final String GETTER = "get";
+    private static final String SETTER = "set";
+    /**
+     * 回放时默认的最少调用次数，调用次数低于它的属性只创建 Reflector，不升级
+     */
+    public static final int DEFAULT_MIN_INVOCATIONS = AdaptiveInvoker.DEFAULT_THRESHOLD / 10;
+
+    /**
+     * 类名 --> 被调用过的属性（"get"/"set" + 属性名 --> 调用次数）
+     */
+    private final Map<String, Map<String, Integer>> classes = new TreeMap<>();
+
+    /**
+     * 记录工厂（包括其父工厂）当前缓存的所有类和被调用过的属性
+     */
+    public static WarmupProfile record(DefaultReflectorFactory reflectorFactory) {
+        WarmupProfile profile = new WarmupProfile();
+        if (reflectorFactory.getParent() != null) {
+            profile.addAll(reflectorFactory.getParent());
+        }
+        profile.addAll(reflectorFactory);
+        return profile;
+    }
+
+    /**
+     * 在 JVM 关闭时记录工厂的使用情况并写入文件，写入失败时忽略
+     */
+    public static void recordOnShutdown(final DefaultReflectorFactory reflectorFactory, final Path file) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                record(reflectorFactory).writeTo(file);
+            } catch (ReflectionException e) {
+                //JVM 正在关闭，日志可能已经不可用；丢掉本次记录，下次启动时沿用旧的文件
+            }
+        }, "reflector-warmup-profile"));
+    }
+
+    public static WarmupProfile readFrom(Path file) {
+        WarmupProfile profile = new WarmupProfile();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith(COMMENT)) {
+                    continue;
+                }
+                String[] parts = line.split("\t");
+                Map<String, Integer> properties = profile.classes.computeIfAbsent(parts[0], k -> new TreeMap<>());
+                if (parts.length == 4) {
+                    properties.merge(parts[1] + "\t" + parts[2], Integer.parseInt(parts[3]), Integer::sum);
+                } else if (parts.length != 1) {
+                    throw new ReflectionException("Invalid warm-up profile line '" + line + "' in " + file);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            throw new ReflectionException("Error reading warm-up profile " + file + ". Cause: " + e, e);
+        }
+        return profile;
+    }
+
+    public void writeTo(Path file) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write(COMMENT + " reflector warm-up profile");
+                writer.newLine();
+                for (Map.Entry<String, Map<String, Integer>> entry : classes.entrySet()) {
+                    writer.write(entry.getKey());
+                    writer.newLine();
+                    for (Map.Entry<String, Integer> property : entry.getValue().entrySet()) {
+                        writer.write(entry.getKey() + "\t" + property.getKey() + "\t" + property.getValue());
+                        writer.newLine();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new ReflectionException("Error writing warm-up profile " + file + ". Cause: " + e, e);
+        }
+    }
+
+    /**
+     * 回放，调用次数达到 DEFAULT_MIN_INVOCATIONS 的属性才会被升级
+     * @return 成功预热的类的个数
+     */
+    public int replay(ReflectorFactory reflectorFactory, ClassLoader classLoader) {
+        return replay(reflectorFactory, classLoader, DEFAULT_MIN_INVOCATIONS);
+    }
+
+    /**
+     *     回放：通过工厂创建配置中所有类的 Reflector，并升级调用次数不少于 minInvocations 的属性，只被偶尔调用的属性
+     * 仍然按 AdaptiveInvoker 的阈值在运行时升级。找不到的类和属性（例如代码已经修改）会被跳过。
+     * @param minInvocations 升级属性所需的最少调用次数，小于等于 1 时升级所有被调用过的属性
+     * @return 成功预热的类的个数
+     */
+    public int replay(ReflectorFactory reflectorFactory, ClassLoader classLoader, int minInvocations) {
+        int warmed = 0;
+        for (Map.Entry<String, Map<String, Integer>> entry : classes.entrySet()) {
+            Class<?> type;
+            try {
+                type = Class.forName(entry.getKey(), false, classLoader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                continue;
+            }
+            Reflector reflector = reflectorFactory.findForClass(type);
+            for (Map.Entry<String, Integer> invoked : entry.getValue().entrySet()) {
+                if (invoked.getValue() < minInvocations) {
+                    continue;
+                }
+                String property = invoked.getKey();
+                int tab = property.indexOf('\t');
+                String name = property.substring(tab + 1);
+                if (GETTER.equals(property.substring(0, tab))) {
+                    if (reflector.hasGetter(name)) {
+                        upgrade(reflector.getGetInvoker(name));
+                    }
+                } else if (reflector.hasSetter(name)) {
+                    upgrade(reflector.getSetInvoker(name));
+                }
+            }
+            warmed++;
+        }
+        return warmed;
+    }
+
+    /**
+     * 配置中的所有类名
+     */
+    public Set<String> getClassNames() {
+        return Collections.unmodifiableSet(classes.keySet());
+    }
+
+    /**
+     * 类中被调用过的属性，键为 "get"/"set" + 制表符 + 属性名，值为调用次数
+     */
+    public Map<String, Integer> getInvokedProperties(String className) {
+        Map<String, Integer> properties = classes.get(className);
+        return properties == null ? Collections.<String, Integer>emptyMap() : Collections.unmodifiableMap(properties);
+    }
+
+    private void addAll(DefaultReflectorFactory reflectorFactory) {
+        for (Reflector reflector : reflectorFactory.getCachedReflectors()) {
+            Map<String, Integer> properties = new LinkedHashMap<>();
+            for (String name : reflector.getGetablePropertyNames()) {
+                addInvoked(properties, GETTER, name, reflector.getGetInvoker(name));
+            }
+            for (String name : reflector.getSetablePropertyNames()) {
+                addInvoked(properties, SETTER, name, reflector.getSetInvoker(name));
+            }
+            classes.computeIfAbsent(reflector.getType().getName(), k -> new TreeMap<>()).putAll(properties);
+        }
+    }
+
+    private static void addInvoked(Map<String, Integer> properties, String kind, String name, Invoker invoker) {
+        if (invoker instanceof AdaptiveInvoker) {
+            AdaptiveInvoker adaptiveInvoker = (AdaptiveInvoker) invoker;
+            int count = adaptiveInvoker.getInvocationCount();
+            //升级后不再计数，回放时提前升级的 Invoker 计数为 0，按阈值记录，以免下次回放时低于最少调用次数
+            if (adaptiveInvoker.isUpgraded()) {
+                count = Math.max(count, Math.max(adaptiveInvoker.getThreshold(), 1));
+            }
+            if (count > 0) {
+                properties.put(kind + "\t" + name, count);
+            }
+        }
+    }
+
+    private static void upgrade(Invoker invoker) {
+        if (invoker instanceof AdaptiveInvoker) {
+            ((AdaptiveInvoker) invoker).upgrade();
+        }
+    }
+}
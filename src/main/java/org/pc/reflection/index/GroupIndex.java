@@ -0,0 +1,95 @@
+package org.pc.reflection.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ *     分组索引（例如按 status 分组），一个键对应多个对象，组内保持加入的顺序。键可以为 null。
+ *     不是线程安全的，并发修改需要外部同步。
+ */
+public class GroupIndex<T> {
+    private final KeyExtractor keyExtractor;
+    private final Map<Object, List<T>> groups = new HashMap<>();
+    private int size;
+
+    private GroupIndex(KeyExtractor keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    public static <T> GroupIndex<T> build(Class<T> type, Collection<? extends T> beans, String... paths) {
+        return build(type, beans, false, paths);
+    }
+
+    /**
+     * @param parallel 为 true 时并行提取键，插入仍然是顺序的
+     */
+    public static <T> GroupIndex<T> build(Class<T> type, Collection<? extends T> beans, boolean parallel, String... paths) {
+        GroupIndex<T> index = new GroupIndex<>(new KeyExtractor(type, paths));
+        Object[] keys = index.keyExtractor.keysOf(beans, parallel);
+        int i = 0;
+        for (T bean : beans) {
+            index.put(keys[i++], bean);
+        }
+        return index;
+    }
+
+    /**
+     * @return 键对应的对象（只读），没有时返回空列表
+     */
+    public List<T> get(Object key) {
+        List<T> group = groups.get(key);
+        return group == null ? Collections.<T>emptyList() : Collections.unmodifiableList(group);
+    }
+
+    public Set<Object> keySet() {
+        return Collections.unmodifiableSet(groups.keySet());
+    }
+
+    public void add(T bean) {
+        put(keyExtractor.keyOf(bean), bean);
+    }
+
+    /**
+     * 移除对象，对象的键属性在加入索引之后不能被修改
+     * @return 对象在索引中时返回 true
+     */
+    public boolean remove(T bean) {
+        Object key = keyExtractor.keyOf(bean);
+        List<T> group = groups.get(key);
+        if (group == null) {
+            return false;
+        }
+        for (int i = 0; i < group.size(); i++) {
+            if (group.get(i) == bean) {
+                group.remove(i);
+                if (group.isEmpty()) {
+                    groups.remove(key);
+                }
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return 索引中对象的个数
+     */
+    public int size() {
+        return size;
+    }
+
+    public String[] getPaths() {
+        return keyExtractor.getPaths();
+    }
+
+    private void put(Object key, T bean) {
+        groups.computeIfAbsent(key, k -> new ArrayList<>()).add(bean);
+        size++;
+    }
+}
@@ -0,0 +1,90 @@
+package org.pc.reflection.index;
+
+import org.pc.reflection.exception.ReflectionException;
+import org.pc.reflection.property.PropertyExtractor;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ *     索引键的提取：一个属性表达式时键就是属性值，多个属性表达式时键是由各属性值组成的 List（可以作为 HashMap 的键）。
+ * 每个属性表达式通过 PropertyExtractor 只解析一次。
+ */
+final class KeyExtractor {
+    private final Class<?> type;
+    private final String[] paths;
+    private final PropertyExtractor[] extractors;
+
+    KeyExtractor(Class<?> type, String... paths) {
+        if (paths.length == 0) {
+            throw new ReflectionException("No property specified for index of " + type);
+        }
+        this.type = type;
+        this.paths = paths.clone();
+        extractors = new PropertyExtractor[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            extractors[i] = PropertyExtractor.forPath(type, paths[i]);
+        }
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    String[] getPaths() {
+        return paths.clone();
+    }
+
+    /**
+     * 只有一个属性表达式，且属性为整数类型（byte/short/char/int/long）时，键可以按 long 提取
+     */
+    boolean isIntegral() {
+        if (extractors.length != 1) {
+            return false;
+        }
+        Class<?> keyType = extractors[0].getType();
+        return keyType == long.class || keyType == int.class || keyType == short.class
+                || keyType == byte.class || keyType == char.class;
+    }
+
+    Object keyOf(Object bean) {
+        if (extractors.length == 1) {
+            return extractors[0].get(bean);
+        }
+        Object[] values = new Object[extractors.length];
+        for (int i = 0; i < extractors.length; i++) {
+            values[i] = extractors[i].get(bean);
+        }
+        return Arrays.asList(values);
+    }
+
+    long longKeyOf(Object bean) {
+        return extractors[0].getLong(bean);
+    }
+
+    /**
+     * 批量提取键，parallel 为 true 时各属性并行提取
+     */
+    Object[] keysOf(Collection<?> beans, boolean parallel) {
+        if (extractors.length == 1) {
+            return extractors[0].extract(beans, parallel);
+        }
+        Object[][] columns = new Object[extractors.length][];
+        for (int i = 0; i < extractors.length; i++) {
+            columns[i] = extractors[i].extract(beans, parallel);
+        }
+        Object[] keys = new Object[beans.size()];
+        for (int row = 0; row < keys.length; row++) {
+            Object[] values = new Object[extractors.length];
+            for (int i = 0; i < extractors.length; i++) {
+                values[i] = columns[i][row];
+            }
+            keys[row] = Arrays.asList(values);
+        }
+        return keys;
+    }
+
+    long[] longKeysOf(Collection<?> beans, boolean parallel) {
+        return extractors[0].extractLongs(beans, parallel);
+    }
+}
@@ -0,0 +1,174 @@
+package org.pc.reflection.index;
+
+import org.pc.reflection.exception.ReflectionException;
+
+import java.util.Collection;
+
+/**
+ *     键为整数类型（byte/short/char/int/long）单个属性的唯一索引。键按 long 读取，存放在开放寻址（线性探测）的
+ * long[] 中，不会装箱。属性表达式中间某一级为 null 时键为 0，与 PropertyExtractor 一致。
+ *     不是线程安全的，并发修改需要外部同步。
+ */
+public class LongUniqueIndex<T> {
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final KeyExtractor keyExtractor;
+    private long[] keys;
+    /**
+     * 与 keys 对应，为 null 表示该位置为空
+     */
+    private Object[] values;
+    private int size;
+
+    private LongUniqueIndex(KeyExtractor keyExtractor, int expectedSize) {
+        if (!keyExtractor.isIntegral()) {
+            throw new ReflectionException("Property '" + keyExtractor.getPaths()[0] + "' of " + keyExtractor.getType()
+                    + " is not an integral property");
+        }
+        this.keyExtractor = keyExtractor;
+        allocate(capacityFor(expectedSize));
+    }
+
+    public static <T> LongUniqueIndex<T> build(Class<T> type, Collection<? extends T> beans, String path) {
+        return build(type, beans, false, path);
+    }
+
+    /**
+     * @param parallel 为 true 时并行提取键，插入仍然是顺序的
+     */
+    public static <T> LongUniqueIndex<T> build(Class<T> type, Collection<? extends T> beans, boolean parallel, String path) {
+        LongUniqueIndex<T> index = new LongUniqueIndex<>(new KeyExtractor(type, path), beans.size());
+        long[] keys = index.keyExtractor.longKeysOf(beans, parallel);
+        int i = 0;
+        for (T bean : beans) {
+            index.put(keys[i++], bean);
+        }
+        return index;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(long key) {
+        int slot = find(key);
+        return slot < 0 ? null : (T) values[slot];
+    }
+
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    public void add(T bean) {
+        put(keyExtractor.longKeyOf(bean), bean);
+    }
+
+    /**
+     * 移除对象，对象的键属性在加入索引之后不能被修改
+     * @return 对象在索引中时返回 true
+     */
+    public boolean remove(T bean) {
+        int slot = find(keyExtractor.longKeyOf(bean));
+        if (slot < 0 || values[slot] != bean) {
+            return false;
+        }
+        delete(slot);
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getPath() {
+        return keyExtractor.getPaths()[0];
+    }
+
+    private void put(long key, T bean) {
+        if (bean == null) {
+            throw new ReflectionException("Cannot index null bean of " + keyExtractor.getType());
+        }
+        if (size + 1 > values.length * LOAD_FACTOR) {
+            rehash(values.length << 1);
+        }
+        int mask = values.length - 1;
+        int slot = hash(key) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                if (values[slot] == bean) {
+                    return;
+                }
+                throw new ReflectionException("Duplicate key '" + key + "' for unique index on " + keyExtractor.getType());
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = bean;
+        size++;
+    }
+
+    private int find(long key) {
+        int mask = values.length - 1;
+        int slot = hash(key) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * 删除后将同一探测序列上后面的元素前移，保证查找不会提前遇到空位
+     */
+    private void delete(int slot) {
+        int mask = values.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (values[next] != null) {
+            int home = hash(keys[next]) & mask;
+            //home 不在 (hole, next] 之间时，元素可以移动到 hole
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[hole] = null;
+        size--;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR < expectedSize + 1) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,155 @@
+package org.pc.reflection.index;
+
+import org.pc.reflection.exception.ReflectionException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ *     有序索引，支持按键的范围查询，例如 createTime 在某个时间段内的所有订单。键必须实现 Comparable，多个属性表达式
+ * 组成复合键时按属性顺序依次比较。键（或复合键中任意一个属性）为 null 的对象不会被索引。相同键的对象保持加入的顺序。
+ *     不是线程安全的，并发修改需要外部同步。
+ */
+public class SortedIndex<T> {
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Comparator<Object> KEY_COMPARATOR = (a, b) -> {
+        if (a instanceof List && b instanceof List) {
+            List<?> x = (List<?>) a;
+            List<?> y = (List<?>) b;
+            int length = Math.min(x.size(), y.size());
+            for (int i = 0; i < length; i++) {
+                int c = ((Comparable) x.get(i)).compareTo(y.get(i));
+                if (c != 0) {
+                    return c;
+                }
+            }
+            //前缀相同时短的在前
+            return Integer.compare(x.size(), y.size());
+        }
+        return ((Comparable) a).compareTo(b);
+    };
+
+    private final KeyExtractor keyExtractor;
+    private final NavigableMap<Object, List<T>> entries = new TreeMap<>(KEY_COMPARATOR);
+    private int size;
+
+    private SortedIndex(KeyExtractor keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    public static <T> SortedIndex<T> build(Class<T> type, Collection<? extends T> beans, String... paths) {
+        return build(type, beans, false, paths);
+    }
+
+    /**
+     * @param parallel 为 true 时并行提取键，插入仍然是顺序的
+     */
+    public static <T> SortedIndex<T> build(Class<T> type, Collection<? extends T> beans, boolean parallel, String... paths) {
+        SortedIndex<T> index = new SortedIndex<>(new KeyExtractor(type, paths));
+        Object[] keys = index.keyExtractor.keysOf(beans, parallel);
+        int i = 0;
+        for (T bean : beans) {
+            index.put(keys[i++], bean);
+        }
+        return index;
+    }
+
+    /**
+     * @return 键对应的对象（只读），没有时返回空列表
+     */
+    public List<T> get(Object key) {
+        List<T> group = entries.get(key);
+        return group == null ? Collections.<T>emptyList() : Collections.unmodifiableList(group);
+    }
+
+    /**
+     *     按键的顺序返回 [from, to] 范围内的对象。复合键的边界可以只给出前几个属性（前缀），前缀小于所有以它开头的键，
+     * 例如 from 为 [2024] 且包含边界时从第一个以 2024 开头的键开始；to 为 [2024] 时不包含以 2024 开头、更长的键。
+     * @param from 下界，为 null 表示不限
+     * @param to 上界，为 null 表示不限
+     */
+    public List<T> range(Object from, boolean fromInclusive, Object to, boolean toInclusive) {
+        NavigableMap<Object, List<T>> view = entries;
+        if (from != null) {
+            view = view.tailMap(from, fromInclusive);
+        }
+        if (to != null) {
+            view = view.headMap(to, toInclusive);
+        }
+        List<T> result = new ArrayList<>();
+        for (List<T> group : view.values()) {
+            result.addAll(group);
+        }
+        return result;
+    }
+
+    public Object firstKey() {
+        return entries.isEmpty() ? null : entries.firstKey();
+    }
+
+    public Object lastKey() {
+        return entries.isEmpty() ? null : entries.lastKey();
+    }
+
+    public void add(T bean) {
+        put(keyExtractor.keyOf(bean), bean);
+    }
+
+    /**
+     * 移除对象，对象的键属性在加入索引之后不能被修改
+     * @return 对象在索引中时返回 true
+     */
+    public boolean remove(T bean) {
+        Object key = keyExtractor.keyOf(bean);
+        if (hasNull(key)) {
+            return false;
+        }
+        List<T> group = entries.get(key);
+        if (group == null) {
+            return false;
+        }
+        for (int i = 0; i < group.size(); i++) {
+            if (group.get(i) == bean) {
+                group.remove(i);
+                if (group.isEmpty()) {
+                    entries.remove(key);
+                }
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return 索引中对象的个数
+     */
+    public int size() {
+        return size;
+    }
+
+    public String[] getPaths() {
+        return keyExtractor.getPaths();
+    }
+
+    private void put(Object key, T bean) {
+        if (hasNull(key)) {
+            return;
+        }
+        if (!(key instanceof Comparable) && !(key instanceof List)) {
+            throw new ReflectionException("Key of type " + key.getClass().getName() + " for sorted index on "
+                    + keyExtractor.getType() + " is not Comparable");
+        }
+        entries.computeIfAbsent(key, k -> new ArrayList<>()).add(bean);
+        size++;
+    }
+
+    private static boolean hasNull(Object key) {
+        return key == null || key instanceof List && ((List<?>) key).contains(null);
+    }
+}
@@ -0,0 +1,75 @@
+package org.pc.reflection.index;
+
+import org.pc.reflection.exception.ReflectionException;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *     唯一索引（例如 byId、byEmail），键到对象一一对应，键重复时抛出异常。多个属性表达式组成复合键时，
+ * get() 的参数为按属性顺序排列的属性值 List。键为整数类型的单个属性时可以使用 LongUniqueIndex，避免装箱。
+ *     不是线程安全的，并发修改需要外部同步。
+ */
+public class UniqueIndex<T> {
+    private final KeyExtractor keyExtractor;
+    private final Map<Object, T> entries;
+
+    private UniqueIndex(KeyExtractor keyExtractor, int expectedSize) {
+        this.keyExtractor = keyExtractor;
+        this.entries = new HashMap<>(Math.max((int) (expectedSize / 0.75f) + 1, 16));
+    }
+
+    public static <T> UniqueIndex<T> build(Class<T> type, Collection<? extends T> beans, String... paths) {
+        return build(type, beans, false, paths);
+    }
+
+    /**
+     * @param parallel 为 true 时并行提取键，插入仍然是顺序的
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> UniqueIndex<T> build(Class<T> type, Collection<? extends T> beans, boolean parallel, String... paths) {
+        UniqueIndex<T> index = new UniqueIndex<>(new KeyExtractor(type, paths), beans.size());
+        Object[] keys = index.keyExtractor.keysOf(beans, parallel);
+        int i = 0;
+        for (T bean : beans) {
+            index.put(keys[i++], bean);
+        }
+        return index;
+    }
+
+    public T get(Object key) {
+        return entries.get(key);
+    }
+
+    public boolean containsKey(Object key) {
+        return entries.containsKey(key);
+    }
+
+    public void add(T bean) {
+        put(keyExtractor.keyOf(bean), bean);
+    }
+
+    /**
+     * 移除对象，对象的键属性在加入索引之后不能被修改
+     * @return 对象在索引中时返回 true
+     */
+    public boolean remove(T bean) {
+        return entries.remove(keyExtractor.keyOf(bean), bean);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public String[] getPaths() {
+        return keyExtractor.getPaths();
+    }
+
+    private void put(Object key, T bean) {
+        T previous = entries.putIfAbsent(key, bean);
+        if (previous != null && previous != bean) {
+            throw new ReflectionException("Duplicate key '" + key + "' for unique index on " + keyExtractor.getType());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.pc.reflection.invoker;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ *     分层 Invoker：刚创建时走反射调用，并统计调用次数；当调用次数达到阈值后，生成 MethodHandleInvoker，
+ * 通过 CAS 无锁地替换掉反射调用。这样只有被频繁调用的属性才需要付出生成的代价。
+ */
+public class AdaptiveInvoker implements Invoker {
+    /**
+     * 默认的升级阈值
+     */
+    public static final int DEFAULT_THRESHOLD = 1000;
+
+    private static final AtomicReferenceFieldUpdater<AdaptiveInvoker, Invoker> DELEGATE_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(AdaptiveInvoker.class, Invoker.class, "delegate");
+
+    private final Invoker reflectiveInvoker;
+    private final int threshold;
+    private volatile Invoker delegate;
+    /**
+     * 调用计数，不做同步，并发时少计几次并不影响升级的时机
+     */
+    private int invocationCount;
+    /**
+     * 升级失败（例如 final 属性无法生成 setter 句柄）后不再尝试，一直走反射
+     */
+    private boolean upgradeFailed;
+
+    public AdaptiveInvoker(Invoker reflectiveInvoker) {
+        this(reflectiveInvoker, DEFAULT_THRESHOLD);
+    }
+
+    public AdaptiveInvoker(Invoker reflectiveInvoker, int threshold) {
+        this.reflectiveInvoker = reflectiveInvoker;
+        this.threshold = threshold;
+        this.delegate = reflectiveInvoker;
+    }
+
+    @Override
+    public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+        Invoker current = delegate;
+        if (current == reflectiveInvoker && !upgradeFailed && ++invocationCount >= threshold) {
+            current = upgrade();
+        }
+        return current.invoke(target, args);
+    }
+
+    /**
+     * 立即升级为 MethodHandleInvoker，已经升级过则直接返回当前的 Invoker
+     * @return 升级后实际使用的 Invoker，升级失败时返回反射型 Invoker
+     */
+    public Invoker upgrade() {
+        Invoker current = delegate;
+        if (current != reflectiveInvoker || upgradeFailed) {
+            return current;
+        }
+        try {
+            Invoker optimized = MethodHandleInvoker.forInvoker(reflectiveInvoker);
+            //多个线程同时升级时只有一个能替换成功，其余的直接使用胜出者的结果
+            DELEGATE_UPDATER.compareAndSet(this, reflectiveInvoker, optimized);
+        } catch (Exception e) {
+            upgradeFailed = true;
+        }
+        return delegate;
+    }
+
+    public boolean isUpgraded() {
+        return delegate != reflectiveInvoker;
+    }
+
+    public int getInvocationCount() {
+        return invocationCount;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public Invoker getReflectiveInvoker() {
+        return reflectiveInvoker;
+    }
+
+    @Override
+    public Class<?> getType() {
+        return reflectiveInvoker.getType();
+    }
+}
@@ -0,0 +1,157 @@
+package org.pc.reflection.invoker;
+
+import org.pc.reflection.exception.ReflectionException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ *     基于 MethodHandle 的 Invoker，统一适配成 (Object, Object[])Object 的形式后通过 invokeExact() 调用，
+ * 避免了 Method#invoke() 每次调用时的访问检查和参数校验。
+ *     异常语义与 Method#invoke() 一致：target 为 null 时抛出 NullPointerException，target 或参数的类型、个数不匹配时
+ * 抛出 IllegalArgumentException，只有目标方法自己抛出的异常才会包装成 InvocationTargetException。为此目标方法的句柄
+ * 在做类型适配之前先用 catchException() 把它抛出的异常包装成 TargetException，适配过程中的异常则都来自调用方。
+ */
+public class MethodHandleInvoker implements Invoker {
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+    private static final MethodHandle THROW_TARGET;
+
+    static {
+        try {
+            THROW_TARGET = MethodHandles.lookup().findStatic(MethodHandleInvoker.class, "throwTarget",
+                    MethodType.methodType(Object.class, Throwable.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final MethodHandle handle;
+    private final Class<?> type;
+    /**
+     * 实例方法和实例属性需要非 null 的 target
+     */
+    private final boolean requiresTarget;
+
+    private MethodHandleInvoker(MethodHandle handle, Class<?> type, boolean requiresTarget) {
+        this.handle = handle.asType(INVOKER_TYPE);
+        this.type = type;
+        this.requiresTarget = requiresTarget;
+    }
+
+    public static MethodHandleInvoker forMethod(Method method) throws IllegalAccessException {
+        MethodHandle handle = catchTargetException(MethodHandles.lookup().unreflect(method));
+        //静态方法没有接收者，补上一个被忽略的 target 参数
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        if (isStatic) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        handle = handle.asType(handle.type().generic());
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        if (parameterTypes.length == 0) {
+            handle = MethodHandles.dropArguments(handle, 1, Object[].class);
+        } else {
+            handle = handle.asSpreader(Object[].class, parameterTypes.length);
+        }
+        //与 MethodInvoker 保持一致：只有一个参数时为参数类型，否则为返回值类型
+        Class<?> type = parameterTypes.length == 1 ? parameterTypes[0] : method.getReturnType();
+        return new MethodHandleInvoker(handle, type, !isStatic);
+    }
+
+    public static MethodHandleInvoker forGetField(Field field) throws IllegalAccessException {
+        MethodHandle handle = MethodHandles.lookup().unreflectGetter(field);
+        boolean isStatic = Modifier.isStatic(field.getModifiers());
+        if (isStatic) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        handle = handle.asType(handle.type().generic());
+        handle = MethodHandles.dropArguments(handle, 1, Object[].class);
+        return new MethodHandleInvoker(handle, field.getType(), !isStatic);
+    }
+
+    public static MethodHandleInvoker forSetField(Field field) throws IllegalAccessException {
+        //final 属性无法生成 setter 句柄，此时会抛出 IllegalAccessException，由调用方决定是否继续走反射
+        MethodHandle handle = MethodHandles.lookup().unreflectSetter(field);
+        boolean isStatic = Modifier.isStatic(field.getModifiers());
+        if (isStatic) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        handle = handle.asType(handle.type().generic());
+        handle = handle.asSpreader(Object[].class, 1);
+        return new MethodHandleInvoker(handle, field.getType(), !isStatic);
+    }
+
+    /**
+     * 根据反射型 Invoker 所包装的 Method 或 Field 生成对应的 MethodHandleInvoker
+     */
+    public static MethodHandleInvoker forInvoker(Invoker invoker) throws IllegalAccessException {
+        if (invoker instanceof MethodHandleInvoker) {
+            return (MethodHandleInvoker) invoker;
+        } else if (invoker instanceof MethodInvoker) {
+            return forMethod(((MethodInvoker) invoker).getMethod());
+        } else if (invoker instanceof GetFieldInvoker) {
+            return forGetField(((GetFieldInvoker) invoker).getField());
+        } else if (invoker instanceof SetFieldInvoker) {
+            return forSetField(((SetFieldInvoker) invoker).getField());
+        } else if (invoker instanceof AdaptiveInvoker) {
+            return forInvoker(((AdaptiveInvoker) invoker).getReflectiveInvoker());
+        }
+        throw new ReflectionException("Cannot create MethodHandleInvoker for " + invoker);
+    }
+
+    /**
+     * 目标方法抛出的任何异常（包括 Error）都包装成 TargetException，与适配过程中产生的异常区分开
+     */
+    private static MethodHandle catchTargetException(MethodHandle target) {
+        MethodType type = target.type();
+        MethodHandle handler = THROW_TARGET.asType(MethodType.methodType(type.returnType(), Throwable.class));
+        handler = MethodHandles.dropArguments(handler, 1, type.parameterList());
+        return MethodHandles.catchException(target, Throwable.class, handler);
+    }
+
+    private static Object throwTarget(Throwable t) {
+        throw new TargetException(t);
+    }
+
+    @Override
+    public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+        if (target == null && requiresTarget) {
+            throw new NullPointerException("Target of non-static member is null");
+        }
+        try {
+            return (Object) handle.invokeExact(target, args);
+        } catch (TargetException e) {
+            //与 Method#invoke() 的语义保持一致，目标方法抛出的异常统一包装成 InvocationTargetException
+            throw new InvocationTargetException(e.getCause());
+        } catch (ClassCastException | NullPointerException | IllegalArgumentException | WrongMethodTypeException e) {
+            //目标方法之外的异常来自类型适配：target 或参数的类型不对、参数个数不对、基本类型的参数为 null
+            throw new IllegalArgumentException("argument type mismatch", e);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(t);
+        }
+    }
+
+    @Override
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * 携带目标方法抛出的异常，不需要自己的堆栈
+     */
+    private static final class TargetException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private TargetException(Throwable cause) {
+            super(null, cause, false, false);
+        }
+    }
+}
@@ -28,4 +28,8 @@ public class MethodInvoker implements Invoker {
     public Class<?> getType() {
         return type;
     }
+
+    public Method getMethod() {
+        return method;
+    }
 }
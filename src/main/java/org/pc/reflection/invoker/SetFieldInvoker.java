@@ -22,4 +22,8 @@ public class SetFieldInvoker implements Invoker {
     public Class<?> getType() {
         return field.getType();
     }
+
+    public Field getField() {
+        return field;
+    }
 }
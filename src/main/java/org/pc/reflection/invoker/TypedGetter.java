@@ -0,0 +1,209 @@
+package org.pc.reflection.invoker;
+
+import org.pc.reflection.exception.ReflectionException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ *     基于 MethodHandle 的带类型的 getter，基本类型的属性可以通过 getInt()/getLong()/getDouble() 等方法
+ * 直接读取，不需要装箱。读取时会按 Java 的规则做基本类型的拓宽转换（如 int --> long），引用类型则会拆箱。
+ */
+public class TypedGetter {
+    private final Class<?> type;
+    /**
+     * (Object)type 形式的句柄，type 为基本类型或 Object
+     */
+    private final MethodHandle handle;
+    /**
+     * 按需生成的各基本类型句柄，并发下重复生成也没有问题
+     */
+    private MethodHandle objectHandle;
+    private MethodHandle booleanHandle;
+    private MethodHandle byteHandle;
+    private MethodHandle charHandle;
+    private MethodHandle shortHandle;
+    private MethodHandle intHandle;
+    private MethodHandle longHandle;
+    private MethodHandle floatHandle;
+    private MethodHandle doubleHandle;
+
+    private TypedGetter(MethodHandle handle, Class<?> type) {
+        this.type = type;
+        this.handle = handle.asType(MethodType.methodType(type.isPrimitive() ? type : Object.class, Object.class));
+    }
+
+    /**
+     * 根据 Reflector 中的 getter Invoker 生成 TypedGetter
+     */
+    public static TypedGetter forInvoker(Invoker invoker) {
+        if (invoker instanceof AdaptiveInvoker) {
+            invoker = ((AdaptiveInvoker) invoker).getReflectiveInvoker();
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            if (invoker instanceof MethodInvoker) {
+                Method method = ((MethodInvoker) invoker).getMethod();
+                MethodHandle handle = lookup.unreflect(method);
+                if (Modifier.isStatic(method.getModifiers())) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                return new TypedGetter(handle, method.getReturnType());
+            } else if (invoker instanceof GetFieldInvoker) {
+                Field field = ((GetFieldInvoker) invoker).getField();
+                MethodHandle handle = lookup.unreflectGetter(field);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                return new TypedGetter(handle, field.getType());
+            }
+            //其他 Invoker 只能通过 Invoker#invoke() 调用
+            MethodHandle handle = lookup.findVirtual(Invoker.class, "invoke",
+                    MethodType.methodType(Object.class, Object.class, Object[].class)).bindTo(invoker);
+            handle = MethodHandles.insertArguments(handle, 1, (Object) null);
+            return new TypedGetter(handle, invoker.getType());
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new ReflectionException("Could not create typed getter for " + invoker + ". Cause: " + e, e);
+        }
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public boolean isPrimitive() {
+        return type.isPrimitive();
+    }
+
+    public Object get(Object target) {
+        MethodHandle h = objectHandle;
+        if (h == null) {
+            objectHandle = h = adapt(Object.class);
+        }
+        try {
+            return (Object) h.invokeExact(target);
+        } catch (Throwable t) {
+            throw fail(t);
+        }
+    }
+
+    public boolean getBoolean(Object target) {
+        MethodHandle h = booleanHandle;
+        if (h == null) {
+            booleanHandle = h = adapt(boolean.class);
+        }
+        try {
+            return (boolean) h.invokeExact(target);
+        } catch (Throwable t) {
+            throw fail(t);
+        }
+    }
+
+    public byte getByte(Object target) {
+        MethodHandle h = byteHandle;
+        if (h == null) {
+            byteHandle = h = adapt(byte.class);
+        }
+        try {
+            return (byte) h.invokeExact(target);
+        } catch (Throwable t) {
+            throw fail(t);
+        }
+    }
+
+    public char getChar(Object target) {
+        MethodHandle h = charHandle;
+        if (h == null) {
+            charHandle = h = adapt(char.class);
+        }
+        try {
+            return (char) h.invokeExact(target);
+        } catch (Throwable t) {
+            throw fail(t);
+        }
+    }
+
+    public short getShort(Object target) {
+        MethodHandle h = shortHandle;
+        if (h == null) {
+            shortHandle = h = adapt(short.class);
+        }
+        try {
+            return (short) h.invokeExact(target);
+        } catch (Throwable t) {
+            throw fail(t);
+        }
+    }
+
+    public int getInt(Object target) {
+        MethodHandle h = intHandle;
+        if (h == null) {
+            intHandle = h = adapt(int.class);
+        }
+        try {
+            return (int) h.invokeExact(target);
+        } catch (Throwable t) {
+            throw fail(t);
+        }
+    }
+
+    public long getLong(Object target) {
+        MethodHandle h = longHandle;
+        if (h == null) {
+            longHandle = h = adapt(long.class);
+        }
+        try {
+            return (long) h.invokeExact(target);
+        } catch (Throwable t) {
+            throw fail(t);
+        }
+    }
+
+    public float getFloat(Object target) {
+        MethodHandle h = floatHandle;
+        if (h == null) {
+            floatHandle = h = adapt(float.class);
+        }
+        try {
+            return (float) h.invokeExact(target);
+        } catch (Throwable t) {
+            throw fail(t);
+        }
+    }
+
+    public double getDouble(Object target) {
+        MethodHandle h = doubleHandle;
+        if (h == null) {
+            doubleHandle = h = adapt(double.class);
+        }
+        try {
+            return (double) h.invokeExact(target);
+        } catch (Throwable t) {
+            throw fail(t);
+        }
+    }
+
+    private MethodHandle adapt(Class<?> returnType) {
+        try {
+            return handle.asType(MethodType.methodType(returnType, Object.class));
+        } catch (WrongMethodTypeException e) {
+            throw new ReflectionException("Property of type " + type.getName() + " cannot be read as "
+                    + returnType.getName(), e);
+        }
+    }
+
+    private RuntimeException fail(Throwable t) {
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        if (t instanceof ReflectionException) {
+            return (ReflectionException) t;
+        }
+        return new ReflectionException("Could not get property of type " + type.getName() + ". Cause: " + t, t);
+    }
+}
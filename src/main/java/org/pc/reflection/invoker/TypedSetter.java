@@ -0,0 +1,212 @@
+package org.pc.reflection.invoker;
+
+import org.pc.reflection.exception.ReflectionException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ *     基于 MethodHandle 的带类型的 setter，与 TypedGetter 对应。基本类型的属性可以通过 setInt()/setLong()/setDouble()
+ * 等方法直接写入，不需要装箱，写入时会按 Java 的规则做基本类型的拓宽转换（如 int --> long）。
+ */
+public class TypedSetter {
+    private final Class<?> type;
+    /**
+     * (Object, type)void 形式的句柄，type 为基本类型或 Object
+     */
+    private final MethodHandle handle;
+    /**
+     * 按需生成的各基本类型句柄，并发下重复生成也没有问题
+     */
+    private MethodHandle objectHandle;
+    private MethodHandle booleanHandle;
+    private MethodHandle byteHandle;
+    private MethodHandle charHandle;
+    private MethodHandle shortHandle;
+    private MethodHandle intHandle;
+    private MethodHandle longHandle;
+    private MethodHandle floatHandle;
+    private MethodHandle doubleHandle;
+
+    private TypedSetter(MethodHandle handle, Class<?> type) {
+        this.type = type;
+        this.handle = handle.asType(MethodType.methodType(void.class, Object.class,
+                type.isPrimitive() ? type : Object.class));
+    }
+
+    /**
+     * 根据 Reflector 中的 setter Invoker 生成 TypedSetter
+     */
+    public static TypedSetter forInvoker(Invoker invoker) {
+        if (invoker instanceof AdaptiveInvoker) {
+            invoker = ((AdaptiveInvoker) invoker).getReflectiveInvoker();
+        }
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            if (invoker instanceof MethodInvoker) {
+                Method method = ((MethodInvoker) invoker).getMethod();
+                MethodHandle handle = lookup.unreflect(method);
+                if (Modifier.isStatic(method.getModifiers())) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                return new TypedSetter(handle, method.getParameterTypes()[0]);
+            } else if (invoker instanceof SetFieldInvoker) {
+                Field field = ((SetFieldInvoker) invoker).getField();
+                //final 属性无法生成 setter 句柄，此时退回到 Invoker#invoke()
+                if (!Modifier.isFinal(field.getModifiers())) {
+                    MethodHandle handle = lookup.unreflectSetter(field);
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                    }
+                    return new TypedSetter(handle, field.getType());
+                }
+            }
+            MethodHandle handle = lookup.findVirtual(Invoker.class, "invoke",
+                    MethodType.methodType(Object.class, Object.class, Object[].class)).bindTo(invoker);
+            handle = handle.asCollector(Object[].class, 1);
+            return new TypedSetter(handle, invoker.getType());
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new ReflectionException("Could not create typed setter for " + invoker + ". Cause: " + e, e);
+        }
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public boolean isPrimitive() {
+        return type.isPrimitive();
+    }
+
+    public void set(Object target, Object value) {
+        MethodHandle h = objectHandle;
+        if (h == null) {
+            objectHandle = h = adapt(Object.class);
+        }
+        try {
+            h.invokeExact(target, value);
+        } catch (Throwable t) {
+            throw fail(t);
+        }
+    }
+
+    public void setBoolean(Object target, boolean value) {
+        MethodHandle h = booleanHandle;
+        if (h == null) {
+            booleanHandle = h = adapt(boolean.class);
+        }
+        try {
+            h.invokeExact(target, value);
+        } catch (Throwable t) {
+            throw fail(t);
+        }
+    }
+
+    public void setByte(Object target, byte value) {
+        MethodHandle h = byteHandle;
+        if (h == null) {
+            byteHandle = h = adapt(byte.class);
+        }
+        try {
+            h.invokeExact(target, value);
+        } catch (Throwable t) {
+            throw fail(t);
+        }
+    }
+
+    public void setChar(Object target, char value) {
+        MethodHandle h = charHandle;
+        if (h == null) {
+            charHandle = h = adapt(char.class);
+        }
+        try {
+            h.invokeExact(target, value);
+        } catch (Throwable t) {
+            throw fail(t);
+        }
+    }
+
+    public void setShort(Object target, short value) {
+        MethodHandle h = shortHandle;
+        if (h == null) {
+            shortHandle = h = adapt(short.class);
+        }
+        try {
+            h.invokeExact(target, value);
+        } catch (Throwable t) {
+            throw fail(t);
+        }
+    }
+
+    public void setInt(Object target, int value) {
+        MethodHandle h = intHandle;
+        if (h == null) {
+            intHandle = h = adapt(int.class);
+        }
+        try {
+            h.invokeExact(target, value);
+        } catch (Throwable t) {
+            throw fail(t);
+        }
+    }
+
+    public void setLong(Object target, long value) {
+        MethodHandle h = longHandle;
+        if (h == null) {
+            longHandle = h = adapt(long.class);
+        }
+        try {
+            h.invokeExact(target, value);
+        } catch (Throwable t) {
+            throw fail(t);
+        }
+    }
+
+    public void setFloat(Object target, float value) {
+        MethodHandle h = floatHandle;
+        if (h == null) {
+            floatHandle = h = adapt(float.class);
+        }
+        try {
+            h.invokeExact(target, value);
+        } catch (Throwable t) {
+            throw fail(t);
+        }
+    }
+
+    public void setDouble(Object target, double value) {
+        MethodHandle h = doubleHandle;
+        if (h == null) {
+            doubleHandle = h = adapt(double.class);
+        }
+        try {
+            h.invokeExact(target, value);
+        } catch (Throwable t) {
+            throw fail(t);
+        }
+    }
+
+    private MethodHandle adapt(Class<?> valueType) {
+        try {
+            return handle.asType(MethodType.methodType(void.class, Object.class, valueType));
+        } catch (WrongMethodTypeException e) {
+            throw new ReflectionException("Property of type " + type.getName() + " cannot be written as "
+                    + valueType.getName(), e);
+        }
+    }
+
+    private RuntimeException fail(Throwable t) {
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        if (t instanceof ReflectionException) {
+            return (ReflectionException) t;
+        }
+        return new ReflectionException("Could not set property of type " + type.getName() + ". Cause: " + t, t);
+    }
+}
@@ -0,0 +1,41 @@
+package org.pc.reflection.mapping;
+
+import java.util.List;
+
+/**
+ * 基于内存中 Object[] 行数据的 RowSource
+ */
+public class ArrayRowSource implements RowSource {
+    private final String[] columnLabels;
+    private final List<Object[]> rows;
+    private int position = -1;
+    private Object[] current;
+
+    public ArrayRowSource(String[] columnLabels, List<Object[]> rows) {
+        this.columnLabels = columnLabels;
+        this.rows = rows;
+    }
+
+    @Override
+    public String[] getColumnLabels() {
+        return columnLabels;
+    }
+
+    @Override
+    public boolean next() {
+        if (position + 1 >= rows.size()) {
+            current = null;
+            return false;
+        }
+        current = rows.get(++position);
+        return true;
+    }
+
+    @Override
+    public Object getObject(int columnIndex) {
+        if (current == null) {
+            throw new IllegalStateException("No current row, call next() first");
+        }
+        return current[columnIndex];
+    }
+}
@@ -0,0 +1,69 @@
+package org.pc.reflection.mapping;
+
+import org.pc.reflection.factory.DefaultObjectFctory;
+import org.pc.reflection.factory.DefaultReflectorFactory;
+import org.pc.reflection.factory.ObjectFctory;
+import org.pc.reflection.factory.ReflectorFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Map 与 JavaBean 之间的相互转换，每个类型的转换计划（BeanMappingPlan）只编译一次
+ */
+public class BeanMapConverter {
+    private final ReflectorFactory reflectorFactory;
+    private final ObjectFctory objectFactory;
+    /**
+     * objectFactory 是否就是 DefaultObjectFctory，子类可能重写了 create()，不能绕过
+     */
+    private final boolean defaultObjectFactory;
+    private final ConcurrentMap<Class<?>, BeanMappingPlan> plans = new ConcurrentHashMap<>();
+
+    /**
+     * 使用 DefaultReflectorFactory#getDefault()
+     */
+    public BeanMapConverter() {
+        this(DefaultReflectorFactory.getDefault(), new DefaultObjectFctory());
+    }
+
+    public BeanMapConverter(ReflectorFactory reflectorFactory, ObjectFctory objectFactory) {
+        this.reflectorFactory = reflectorFactory;
+        this.objectFactory = objectFactory;
+        this.defaultObjectFactory = objectFactory.getClass() == DefaultObjectFctory.class;
+    }
+
+    public BeanMappingPlan getPlan(Class<?> type) {
+        return plans.computeIfAbsent(type, t -> new BeanMappingPlan(reflectorFactory.findForClass(t)));
+    }
+
+    /**
+     *     通过无参构造器创建对象，并将 Map 中的键值写入对应属性。使用默认的 DefaultObjectFctory 且类型有无参构造器时，
+     * 直接使用 Reflector 缓存的构造器；接口、没有无参构造器的类型以及自定义的 ObjectFctory 仍交给 ObjectFctory 创建。
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T toBean(Map<String, ?> map, Class<T> type) {
+        BeanMappingPlan plan = getPlan(type);
+        T bean;
+        if (defaultObjectFactory && plan.hasDefaultConstructor()) {
+            bean = (T) plan.newInstance();
+        } else {
+            bean = objectFactory.create(type);
+            plan = getPlan(bean.getClass());
+        }
+        plan.populate(map, bean);
+        return bean;
+    }
+
+    /**
+     * 将 Map 中的键值写入已有对象的对应属性
+     */
+    public void populate(Map<String, ?> map, Object bean) {
+        getPlan(bean.getClass()).populate(map, bean);
+    }
+
+    public Map<String, Object> toMap(Object bean) {
+        return getPlan(bean.getClass()).toMap(bean);
+    }
+}
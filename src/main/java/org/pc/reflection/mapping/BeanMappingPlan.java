@@ -0,0 +1,145 @@
+package org.pc.reflection.mapping;
+
+import org.pc.reflection.Reflector;
+import org.pc.reflection.exception.ReflectionException;
+import org.pc.reflection.invoker.Invoker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ *     某个类型在 Map 与 JavaBean 之间相互转换的执行计划，根据 Reflector 元信息预先编译好 getter/setter，
+ * Map --> JavaBean 与 JavaBean --> Map 两个方向共用同一份计划。
+ */
+public class BeanMappingPlan {
+    /**
+     * 大小写不匹配的键最多缓存多少个，防止任意输入的键把缓存撑爆
+     */
+    private static final int MAX_RESOLVED_KEYS = 256;
+    /**
+     * 表示该键找不到对应的可写属性
+     */
+    private static final Invoker NO_SETTER = new Invoker() {
+        @Override
+        public Object invoke(Object target, Object[] args) {
+            return null;
+        }
+
+        @Override
+        public Class<?> getType() {
+            return Void.class;
+        }
+    };
+
+    private final Reflector reflector;
+    private final String[] readablePropertyNames;
+    private final Invoker[] getters;
+    private final Map<String, Invoker> setters = new HashMap<>();
+    /**
+     * 大小写与属性名不一致的键 --> setter，避免每次都调用 Reflector#findPropertyName()
+     */
+    private final ConcurrentMap<String, Invoker> resolvedSetters = new ConcurrentHashMap<>();
+    /**
+     * 转换成 Map 时预先分配的容量，避免扩容
+     */
+    private final int mapCapacity;
+
+    public BeanMappingPlan(Reflector reflector) {
+        this.reflector = reflector;
+        readablePropertyNames = reflector.getGetablePropertyNames();
+        getters = new Invoker[readablePropertyNames.length];
+        for (int i = 0; i < readablePropertyNames.length; i++) {
+            getters[i] = reflector.getGetInvoker(readablePropertyNames[i]);
+        }
+        for (String propertyName : reflector.getSetablePropertyNames()) {
+            setters.put(propertyName, reflector.getSetInvoker(propertyName));
+        }
+        mapCapacity = (int) (readablePropertyNames.length / 0.75f) + 1;
+    }
+
+    public Class<?> getType() {
+        return reflector.getType();
+    }
+
+    public boolean hasDefaultConstructor() {
+        return reflector.hasDefaultConstructor();
+    }
+
+    /**
+     * 通过 Reflector 缓存的无参构造器创建对象
+     */
+    public Object newInstance() {
+        try {
+            return reflector.getDefaultConstructor().newInstance();
+        } catch (ReflectionException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ReflectionException("Error instantiating " + reflector.getType() + ". Cause: " + e, e);
+        }
+    }
+
+    /**
+     * 遍历一次 Map，将键值写入对应的属性，没有对应可写属性的键（包括 null 键）会被忽略
+     */
+    public void populate(Map<String, ?> map, Object bean) {
+        //同一次调用中所有属性共用一个参数数组
+        Object[] args = new Object[1];
+        for (Map.Entry<String, ?> entry : map.entrySet()) {
+            String key = entry.getKey();
+            Invoker setter = findSetter(key);
+            if (setter != NO_SETTER) {
+                args[0] = entry.getValue();
+                try {
+                    setter.invoke(bean, args);
+                } catch (Exception e) {
+                    throw new ReflectionException("Could not set property '" + key + "' of '" + reflector.getType()
+                            + "' with value '" + args[0] + "' Cause: " + e, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 将所有可读属性写入预先分配好容量的 Map
+     */
+    public Map<String, Object> toMap(Object bean) {
+        Map<String, Object> map = new HashMap<>(mapCapacity);
+        for (int i = 0; i < getters.length; i++) {
+            try {
+                map.put(readablePropertyNames[i], getters[i].invoke(bean, null));
+            } catch (Exception e) {
+                throw new ReflectionException("Could not get property '" + readablePropertyNames[i] + "' from "
+                        + reflector.getType() + ". Cause: " + e, e);
+            }
+        }
+        return map;
+    }
+
+    private Invoker findSetter(String key) {
+        //ConcurrentHashMap 不接受 null 键
+        if (key == null) {
+            return NO_SETTER;
+        }
+        Invoker setter = setters.get(key);
+        if (setter != null) {
+            return setter;
+        }
+        setter = resolvedSetters.get(key);
+        if (setter != null) {
+            return setter;
+        }
+        String propertyName = reflector.findPropertyName(key);
+        if (propertyName != null) {
+            setter = setters.get(propertyName);
+        }
+        if (setter == null) {
+            setter = NO_SETTER;
+        }
+        if (resolvedSetters.size() < MAX_RESOLVED_KEYS) {
+            resolvedSetters.put(key, setter);
+        }
+        return setter;
+    }
+}
@@ -0,0 +1,171 @@
+package org.pc.reflection.mapping;
+
+import org.pc.reflection.Reflector;
+import org.pc.reflection.exception.ReflectionException;
+import org.pc.reflection.factory.ConstructorInstantiator;
+import org.pc.reflection.factory.DefaultObjectFctory;
+import org.pc.reflection.invoker.Invoker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ *     列名与属性绑定后的行映射器，对应一种结果集结构（列名及其顺序）。绑定时已经将每一列解析成 setter
+ * 或构造器槽位，映射每一行时不再做任何名称查找。
+ *     类型有无参构造器时，先由 DefaultObjectFctory 通过 Reflector 缓存的无参构造器创建对象，再逐个调用 setter；
+ * 否则通过 ConstructorInstantiator 一次性创建并填充。
+ */
+public class RowBinding<T> {
+    private final Class<T> type;
+    private final Reflector reflector;
+    private final DefaultObjectFctory objectFactory;
+    /**
+     * 参与映射的列的位置
+     */
+    private final int[] columnIndexes;
+    /**
+     * 与 columnIndexes 一一对应的 setter，构造器注入时为 null
+     */
+    private final Invoker[] setters;
+    /**
+     * 与 columnIndexes 一一对应的构造器槽位，setter 注入时为 null
+     */
+    private final int[] slots;
+    private final ConstructorInstantiator instantiator;
+
+    RowBinding(Class<T> type, Reflector reflector, DefaultObjectFctory objectFactory, String[] columnLabels) {
+        this.type = type;
+        this.reflector = reflector;
+        this.objectFactory = objectFactory;
+        List<Integer> indexes = new ArrayList<>();
+        List<String> propertyNames = new ArrayList<>();
+        boolean useConstructor = !reflector.hasDefaultConstructor();
+        ConstructorInstantiator constructorInstantiator = useConstructor ? reflector.getConstructorInstantiator() : null;
+        for (int i = 0; i < columnLabels.length; i++) {
+            String propertyName = reflector.findPropertyName(columnLabels[i]);
+            if (propertyName == null) {
+                continue;
+            }
+            if (useConstructor ? constructorInstantiator.getSlot(propertyName) >= 0 : reflector.hasSetter(propertyName)) {
+                indexes.add(i);
+                propertyNames.add(propertyName);
+            }
+        }
+        columnIndexes = new int[indexes.size()];
+        for (int i = 0; i < columnIndexes.length; i++) {
+            columnIndexes[i] = indexes.get(i);
+        }
+        if (useConstructor) {
+            instantiator = constructorInstantiator;
+            setters = null;
+            slots = new int[columnIndexes.length];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = instantiator.getSlot(propertyNames.get(i));
+            }
+        } else {
+            instantiator = null;
+            slots = null;
+            setters = new Invoker[columnIndexes.length];
+            for (int i = 0; i < setters.length; i++) {
+                setters[i] = reflector.getSetInvoker(propertyNames.get(i));
+            }
+        }
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * 映射一行数据
+     */
+    public T map(Object[] row) {
+        return map(row, null, newArgs());
+    }
+
+    /**
+     * 映射数据源的当前行
+     */
+    public T mapCurrent(RowSource source) {
+        return map(null, source, newArgs());
+    }
+
+    /**
+     * 将数据源剩余的所有行映射后追加到 target 中
+     * @return 映射的行数
+     */
+    public int mapAll(RowSource source, List<? super T> target) {
+        Object[] args = newArgs();
+        int count = 0;
+        while (source.next()) {
+            target.add(map(null, source, args));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 从数据源中读取最多 batchSize 行，映射后放入 target。target 会先被清空，可以在多个批次之间重复使用
+     * @return 本批次映射的行数，为 0 表示数据源已读完
+     */
+    public int mapBatch(RowSource source, List<T> target, int batchSize) {
+        target.clear();
+        Object[] args = newArgs();
+        while (target.size() < batchSize && source.next()) {
+            target.add(map(null, source, args));
+        }
+        return target.size();
+    }
+
+    /**
+     * 将行数据按 batchSize 分批，在 ForkJoin 公共线程池中并行映射，结果与 rows 的顺序一致
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> mapParallel(List<Object[]> rows, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive, but was: " + batchSize);
+        }
+        Object[] results = new Object[rows.size()];
+        int batches = (rows.size() + batchSize - 1) / batchSize;
+        IntStream.range(0, batches).parallel().forEach(batch -> {
+            Object[] args = newArgs();
+            int end = Math.min(rows.size(), (batch + 1) * batchSize);
+            for (int i = batch * batchSize; i < end; i++) {
+                results[i] = map(rows.get(i), null, args);
+            }
+        });
+        return (List<T>) Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    /**
+     * setter 注入时是调用 setter 的参数数组，构造器注入时是构造器的参数数组，在同一批次的行之间复用
+     */
+    private Object[] newArgs() {
+        return instantiator == null ? new Object[1] : new Object[instantiator.getSlotCount()];
+    }
+
+    @SuppressWarnings("unchecked")
+    private T map(Object[] row, RowSource source, Object[] args) {
+        if (instantiator != null) {
+            Arrays.fill(args, null);
+            for (int i = 0; i < columnIndexes.length; i++) {
+                args[slots[i]] = row != null ? row[columnIndexes[i]] : source.getObject(columnIndexes[i]);
+            }
+            return (T) instantiator.newInstance(args);
+        }
+        T bean = (T) objectFactory.create(reflector);
+        for (int i = 0; i < columnIndexes.length; i++) {
+            args[0] = row != null ? row[columnIndexes[i]] : source.getObject(columnIndexes[i]);
+            try {
+                setters[i].invoke(bean, args);
+            } catch (Exception e) {
+                throw new ReflectionException("Could not map column " + columnIndexes[i] + " of " + type
+                        + " with value '" + args[0] + "' Cause: " + e, e);
+            }
+        }
+        return bean;
+    }
+}
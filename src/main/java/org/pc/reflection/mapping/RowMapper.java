@@ -0,0 +1,56 @@
+package org.pc.reflection.mapping;
+
+import org.pc.reflection.factory.DefaultObjectFctory;
+import org.pc.reflection.factory.DefaultReflectorFactory;
+import org.pc.reflection.factory.ReflectorFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 将表格数据映射成指定类型的 JavaBean，每种结果集结构（列名及其顺序）只绑定一次
+ */
+public class RowMapper<T> {
+    private final Class<T> type;
+    private final ReflectorFactory reflectorFactory;
+    private final DefaultObjectFctory objectFactory;
+    private final ConcurrentMap<List<String>, RowBinding<T>> bindings = new ConcurrentHashMap<>();
+
+    /**
+     * 使用 DefaultReflectorFactory#getDefault()
+     */
+    public RowMapper(Class<T> type) {
+        this(type, DefaultReflectorFactory.getDefault());
+    }
+
+    public RowMapper(Class<T> type, ReflectorFactory reflectorFactory) {
+        this(type, reflectorFactory, new DefaultObjectFctory());
+    }
+
+    /**
+     * @param objectFactory 通过 reflectorFactory 得到的 Reflector 创建对象
+     */
+    public RowMapper(Class<T> type, ReflectorFactory reflectorFactory, DefaultObjectFctory objectFactory) {
+        this.type = type;
+        this.reflectorFactory = reflectorFactory;
+        this.objectFactory = objectFactory;
+    }
+
+    /**
+     * 获取列名对应的 RowBinding，列名按属性名不区分大小写匹配，无法匹配的列会被忽略
+     */
+    public RowBinding<T> bind(String[] columnLabels) {
+        return bindings.computeIfAbsent(Arrays.asList(columnLabels.clone()),
+                labels -> new RowBinding<>(type, reflectorFactory.findForClass(type), objectFactory, columnLabels));
+    }
+
+    /**
+     * 将数据源剩余的所有行映射后追加到 target 中
+     * @return 映射的行数
+     */
+    public int mapAll(RowSource source, List<? super T> target) {
+        return bind(source.getColumnLabels()).mapAll(source, target);
+    }
+}
@@ -0,0 +1,15 @@
+package org.pc.reflection.mapping;
+
+/**
+ * 类似游标的表格数据源，每次调用 next() 移动到下一行
+ */
+public interface RowSource {
+    //列名，下标即列的位置
+    String[] getColumnLabels();
+
+    //移动到下一行，没有更多行时返回 false
+    boolean next();
+
+    //获取当前行指定位置（从 0 开始）的值
+    Object getObject(int columnIndex);
+}
@@ -0,0 +1,274 @@
+package org.pc.reflection.property;
+
+import org.pc.reflection.Reflector;
+import org.pc.reflection.exception.ReflectionException;
+import org.pc.reflection.factory.DefaultReflectorFactory;
+import org.pc.reflection.factory.ReflectorFactory;
+import org.pc.reflection.invoker.TypedGetter;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ *     按类编译的属性比较器，找出同一类型的两个对象（或对象与之前的快照）之间发生变化的属性。
+ *     属性的槽位（slot）即属性在 Reflector#getGetablePropertyNames() 中的下标，结果以 BitSet 的形式返回，
+ * 第 i 位为 1 表示槽位 i 对应的属性发生了变化。基本类型的属性按位比较，不会装箱（double 的 NaN 视为相等，
+ * 0.0 与 -0.0 视为不相等）。
+ *     快照中可变的属性值会被复制，因此原地修改也能被 changedSince() 发现：数组（包括多维数组）、集合、Map 复制
+ * 一层容器（元素本身不复制），Date 复制一份；其他引用类型（包括嵌套的 JavaBean）按引用记录，只能发现属性被重新
+ * 赋值，嵌套对象内部的变化需要对它单独做快照。
+ */
+public class BeanDiffer {
+    private final Class<?> type;
+    private final String[] propertyNames;
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final TypedGetter[] getters;
+    private final int[] kinds;
+
+    public BeanDiffer(Reflector reflector) {
+        type = reflector.getType();
+        propertyNames = reflector.getGetablePropertyNames();
+        getters = new TypedGetter[propertyNames.length];
+        kinds = new int[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; i++) {
+            slots.put(propertyNames[i], i);
+            getters[i] = TypedGetter.forInvoker(reflector.getGetInvoker(propertyNames[i]));
+            kinds[i] = PropertyKind.kindOf(getters[i].getType());
+        }
+    }
+
+    /**
+     * 获取指定类型的 BeanDiffer，使用 DefaultReflectorFactory#getDefault()
+     */
+    public static BeanDiffer forClass(Class<?> type) {
+        return forClass(type, DefaultReflectorFactory.getDefault());
+    }
+
+    /**
+     * 获取指定类型的 BeanDiffer，它随 Reflector 一起缓存在 reflectorFactory 中，每个 Reflector 只编译一次
+     */
+    public static BeanDiffer forClass(Class<?> type, ReflectorFactory reflectorFactory) {
+        return reflectorFactory.findForClass(type).getPlan(BeanDiffer.class, BeanDiffer::new);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public int getPropertyCount() {
+        return propertyNames.length;
+    }
+
+    public String getPropertyName(int slot) {
+        return propertyNames[slot];
+    }
+
+    /**
+     * @return 属性对应的槽位
+     */
+    public int getSlot(String propertyName) {
+        Integer slot = slots.get(propertyName);
+        if (slot == null) {
+            throw new ReflectionException("There is no getter for property named " + propertyName + " in " + type);
+        }
+        return slot;
+    }
+
+    /**
+     * 比较两个对象的所有可读属性
+     * @return 发生变化的属性槽位
+     */
+    public BitSet diff(Object oldBean, Object newBean) {
+        BitSet changed = new BitSet(propertyNames.length);
+        for (int slot = 0; slot < propertyNames.length; slot++) {
+            if (kinds[slot] == PropertyKind.REFERENCE) {
+                if (!Objects.deepEquals(getters[slot].get(oldBean), getters[slot].get(newBean))) {
+                    changed.set(slot);
+                }
+            } else if (primitiveBits(slot, oldBean) != primitiveBits(slot, newBean)) {
+                changed.set(slot);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 记录对象所有可读属性的当前值
+     */
+    public Snapshot snapshot(Object bean) {
+        BitSet all = new BitSet(propertyNames.length);
+        all.set(0, propertyNames.length);
+        return snapshot(bean, all);
+    }
+
+    /**
+     * 只记录指定槽位的属性值，之后 changedSince() 也只会比较这些属性
+     */
+    public Snapshot snapshot(Object bean, BitSet slotsToCapture) {
+        if (slotsToCapture.length() > propertyNames.length) {
+            throw new ReflectionException("Slot " + (slotsToCapture.length() - 1) + " is out of range for " + type
+                    + ", which has " + propertyNames.length + " readable properties");
+        }
+        int primitiveCount = 0;
+        int referenceCount = 0;
+        for (int slot = slotsToCapture.nextSetBit(0); slot >= 0; slot = slotsToCapture.nextSetBit(slot + 1)) {
+            if (kinds[slot] == PropertyKind.REFERENCE) {
+                referenceCount++;
+            } else {
+                primitiveCount++;
+            }
+        }
+        long[] primitives = new long[primitiveCount];
+        Object[] references = new Object[referenceCount];
+        int p = 0;
+        int r = 0;
+        for (int slot = slotsToCapture.nextSetBit(0); slot >= 0; slot = slotsToCapture.nextSetBit(slot + 1)) {
+            if (kinds[slot] == PropertyKind.REFERENCE) {
+                references[r++] = copyOf(getters[slot].get(bean));
+            } else {
+                primitives[p++] = primitiveBits(slot, bean);
+            }
+        }
+        return new Snapshot(this, (BitSet) slotsToCapture.clone(), primitives, references);
+    }
+
+    /**
+     * 比较对象当前的属性值与快照中记录的值
+     * @return 发生变化的属性槽位
+     */
+    public BitSet changedSince(Snapshot snapshot, Object bean) {
+        if (snapshot.differ != this) {
+            throw new ReflectionException("Snapshot was not taken for " + type);
+        }
+        BitSet changed = new BitSet(propertyNames.length);
+        BitSet captured = snapshot.slots;
+        int p = 0;
+        int r = 0;
+        for (int slot = captured.nextSetBit(0); slot >= 0; slot = captured.nextSetBit(slot + 1)) {
+            if (kinds[slot] == PropertyKind.REFERENCE) {
+                if (!capturedEquals(snapshot.references[r++], getters[slot].get(bean))) {
+                    changed.set(slot);
+                }
+            } else if (snapshot.primitives[p++] != primitiveBits(slot, bean)) {
+                changed.set(slot);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 复制快照中可变的属性值：数组逐层复制，集合和 Map 复制一层容器，Date 复制一份，其他值原样返回
+     */
+    private static Object copyOf(Object value) {
+        if (value == null) {
+            return null;
+        } else if (value instanceof Object[]) {
+            Object[] copy = ((Object[]) value).clone();
+            for (int i = 0; i < copy.length; i++) {
+                if (copy[i] != null && copy[i].getClass().isArray()) {
+                    copy[i] = copyOf(copy[i]);
+                }
+            }
+            return copy;
+        } else if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+            System.arraycopy(value, 0, copy, 0, length);
+            return copy;
+        } else if (value instanceof List) {
+            return new ArrayList<>((List<?>) value);
+        } else if (value instanceof Set) {
+            return new HashSet<>((Set<?>) value);
+        } else if (value instanceof Collection) {
+            //Queue 等没有按内容定义 equals() 的集合，按迭代顺序比较元素
+            return new ElementsCopy((Collection<?>) value);
+        } else if (value instanceof Map) {
+            return new HashMap<>((Map<?, ?>) value);
+        } else if (value instanceof Date) {
+            return ((Date) value).clone();
+        }
+        return value;
+    }
+
+    private static boolean capturedEquals(Object captured, Object current) {
+        if (captured instanceof ElementsCopy) {
+            return current instanceof Collection && ((ElementsCopy) captured).sameElements((Collection<?>) current);
+        }
+        return Objects.deepEquals(captured, current);
+    }
+
+    /**
+     * 将基本类型的属性值转换成 long 形式的位表示，便于统一比较和存储
+     */
+    private long primitiveBits(int slot, Object bean) {
+        TypedGetter getter = getters[slot];
+        switch (kinds[slot]) {
+            case PropertyKind.BOOLEAN:
+                return getter.getBoolean(bean) ? 1L : 0L;
+            case PropertyKind.INT:
+                return getter.getInt(bean);
+            case PropertyKind.LONG:
+                return getter.getLong(bean);
+            case PropertyKind.FLOAT:
+                return Float.floatToIntBits(getter.getFloat(bean));
+            case PropertyKind.DOUBLE:
+                return Double.doubleToLongBits(getter.getDouble(bean));
+            default:
+                throw new IllegalStateException("Property " + propertyNames[slot] + " is not primitive");
+        }
+    }
+
+    /**
+     * 快照中复制的集合元素，按迭代顺序比较
+     */
+    private static final class ElementsCopy {
+        private final Object[] elements;
+
+        private ElementsCopy(Collection<?> collection) {
+            this.elements = collection.toArray();
+        }
+
+        private boolean sameElements(Collection<?> collection) {
+            if (collection.size() != elements.length) {
+                return false;
+            }
+            int i = 0;
+            for (Object element : collection) {
+                if (i >= elements.length || !Objects.deepEquals(elements[i++], element)) {
+                    return false;
+                }
+            }
+            return i == elements.length;
+        }
+    }
+
+    /**
+     * 属性值快照，基本类型与引用类型分开紧凑存放，顺序与记录的槽位顺序一致
+     */
+    public static final class Snapshot {
+        private final BeanDiffer differ;
+        private final BitSet slots;
+        private final long[] primitives;
+        private final Object[] references;
+
+        private Snapshot(BeanDiffer differ, BitSet slots, long[] primitives, Object[] references) {
+            this.differ = differ;
+            this.slots = slots;
+            this.primitives = primitives;
+            this.references = references;
+        }
+
+        public BitSet getSlots() {
+            return (BitSet) slots.clone();
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package org.pc.reflection.property;
+
+import org.pc.reflection.Reflector;
+import org.pc.reflection.exception.ReflectionException;
+import org.pc.reflection.factory.DefaultReflectorFactory;
+import org.pc.reflection.factory.ReflectorFactory;
+import org.pc.reflection.invoker.TypedGetter;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ *     根据 Reflector 暴露的可读属性编译出的相等、哈希和排序函数，用于没有实现 equals()/hashCode() 的第三方
+ * JavaBean。基本类型的属性不会装箱，引用类型的属性按 Objects#deepEquals() 比较相等，按 Comparable 排序，
+ * null 排在最前面。
+ */
+public class BeanEquivalence<T> implements Comparator<T> {
+    private final Class<T> type;
+    private final String[] propertyNames;
+    private final TypedGetter[] getters;
+    private final int[] kinds;
+
+    /**
+     * @param propertyNames 参与比较的属性，不能为空，否则任意两个对象都相等
+     */
+    public BeanEquivalence(Reflector reflector, Class<T> type, String... propertyNames) {
+        if (propertyNames == null || propertyNames.length == 0) {
+            throw new ReflectionException("There are no properties to compare for " + type);
+        }
+        this.type = type;
+        this.propertyNames = propertyNames.clone();
+        getters = new TypedGetter[propertyNames.length];
+        kinds = new int[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; i++) {
+            getters[i] = TypedGetter.forInvoker(reflector.getGetInvoker(propertyNames[i]));
+            kinds[i] = PropertyKind.kindOf(getters[i].getType());
+        }
+    }
+
+    /**
+     * 基于所有可读属性（按属性名排序）的 BeanEquivalence，使用 DefaultReflectorFactory#getDefault()
+     */
+    public static <T> BeanEquivalence<T> forClass(Class<T> type) {
+        return forClass(type, DefaultReflectorFactory.getDefault());
+    }
+
+    /**
+     * 基于所有可读属性（按属性名排序）的 BeanEquivalence，结果随 Reflector 一起缓存在 reflectorFactory 中
+     */
+    public static <T> BeanEquivalence<T> forClass(Class<T> type, ReflectorFactory reflectorFactory) {
+        return reflectorFactory.findForClass(type).getPlan(PlanKey.ALL_PROPERTIES, reflector -> {
+            String[] selected = reflector.getGetablePropertyNames().clone();
+            Arrays.sort(selected);
+            return new BeanEquivalence<>(reflector, type, selected);
+        });
+    }
+
+    /**
+     * 基于指定属性的 BeanEquivalence，使用 DefaultReflectorFactory#getDefault()
+     * @param propertyNames 属性列表，不能为空
+     */
+    public static <T> BeanEquivalence<T> forClass(Class<T> type, String... propertyNames) {
+        return forClass(type, DefaultReflectorFactory.getDefault(), propertyNames);
+    }
+
+    /**
+     *     基于指定属性的 BeanEquivalence，排序时按属性的先后顺序依次比较。结果随 Reflector 一起缓存在
+     * reflectorFactory 中，每个（Reflector，属性列表）组合只编译一次。
+     * @param propertyNames 属性列表，不能为空；需要所有可读属性时使用 forClass(Class, ReflectorFactory)
+     */
+    public static <T> BeanEquivalence<T> forClass(Class<T> type, ReflectorFactory reflectorFactory, String... propertyNames) {
+        if (propertyNames == null || propertyNames.length == 0) {
+            throw new ReflectionException("There are no properties to compare for " + type
+                    + ", use forClass(Class, ReflectorFactory) to compare all readable properties");
+        }
+        String[] selected = propertyNames.clone();
+        return reflectorFactory.findForClass(type).getPlan(new PlanKey(Arrays.asList(selected)),
+                reflector -> new BeanEquivalence<>(reflector, type, selected));
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public String[] getPropertyNames() {
+        return propertyNames.clone();
+    }
+
+    /**
+     * 所有属性都相等时返回 true
+     */
+    public boolean equivalent(T a, T b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null) {
+            return false;
+        }
+        for (int i = 0; i < getters.length; i++) {
+            TypedGetter getter = getters[i];
+            switch (kinds[i]) {
+                case PropertyKind.BOOLEAN:
+                    if (getter.getBoolean(a) != getter.getBoolean(b)) {
+                        return false;
+                    }
+                    break;
+                case PropertyKind.INT:
+                    if (getter.getInt(a) != getter.getInt(b)) {
+                        return false;
+                    }
+                    break;
+                case PropertyKind.LONG:
+                    if (getter.getLong(a) != getter.getLong(b)) {
+                        return false;
+                    }
+                    break;
+                case PropertyKind.FLOAT:
+                    if (Float.floatToIntBits(getter.getFloat(a)) != Float.floatToIntBits(getter.getFloat(b))) {
+                        return false;
+                    }
+                    break;
+                case PropertyKind.DOUBLE:
+                    if (Double.doubleToLongBits(getter.getDouble(a)) != Double.doubleToLongBits(getter.getDouble(b))) {
+                        return false;
+                    }
+                    break;
+                default:
+                    if (!Objects.deepEquals(getter.get(a), getter.get(b))) {
+                        return false;
+                    }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 与 equivalent() 一致的哈希值
+     */
+    public int hash(T bean) {
+        if (bean == null) {
+            return 0;
+        }
+        int result = 1;
+        for (int i = 0; i < getters.length; i++) {
+            TypedGetter getter = getters[i];
+            int h;
+            switch (kinds[i]) {
+                case PropertyKind.BOOLEAN:
+                    h = Boolean.hashCode(getter.getBoolean(bean));
+                    break;
+                case PropertyKind.INT:
+                    h = getter.getInt(bean);
+                    break;
+                case PropertyKind.LONG:
+                    h = Long.hashCode(getter.getLong(bean));
+                    break;
+                case PropertyKind.FLOAT:
+                    h = Float.hashCode(getter.getFloat(bean));
+                    break;
+                case PropertyKind.DOUBLE:
+                    h = Double.hashCode(getter.getDouble(bean));
+                    break;
+                default:
+                    Object value = getter.get(bean);
+                    h = value != null && value.getClass().isArray()
+                            ? Arrays.deepHashCode(new Object[]{value}) : Objects.hashCode(value);
+            }
+            result = 31 * result + h;
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public int compare(T a, T b) {
+        if (a == b) {
+            return 0;
+        }
+        if (a == null || b == null) {
+            return a == null ? -1 : 1;
+        }
+        for (int i = 0; i < getters.length; i++) {
+            TypedGetter getter = getters[i];
+            int c;
+            switch (kinds[i]) {
+                case PropertyKind.BOOLEAN:
+                    c = Boolean.compare(getter.getBoolean(a), getter.getBoolean(b));
+                    break;
+                case PropertyKind.INT:
+                    c = Integer.compare(getter.getInt(a), getter.getInt(b));
+                    break;
+                case PropertyKind.LONG:
+                    c = Long.compare(getter.getLong(a), getter.getLong(b));
+                    break;
+                case PropertyKind.FLOAT:
+                    c = Float.compare(getter.getFloat(a), getter.getFloat(b));
+                    break;
+                case PropertyKind.DOUBLE:
+                    c = Double.compare(getter.getDouble(a), getter.getDouble(b));
+                    break;
+                default:
+                    Object va = getter.get(a);
+                    Object vb = getter.get(b);
+                    if (va == vb) {
+                        c = 0;
+                    } else if (va == null || vb == null) {
+                        c = va == null ? -1 : 1;
+                    } else if (va instanceof Comparable) {
+                        c = ((Comparable) va).compareTo(vb);
+                    } else {
+                        throw new ReflectionException("Property '" + propertyNames[i] + "' of " + type
+                                + " is not Comparable");
+                    }
+            }
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 将对象包装成可以作为 HashMap 键的 Key，相等和哈希都由当前 BeanEquivalence 决定
+     */
+    public Key<T> key(T bean) {
+        return new Key<>(this, bean);
+    }
+
+    /**
+     * Reflector#getPlan() 中区分不同属性列表的键
+     */
+    private static final class PlanKey {
+        /**
+         * 所有可读属性，属性列表为 null，与任何显式指定的属性列表都不相等
+         */
+        private static final PlanKey ALL_PROPERTIES = new PlanKey(null);
+
+        private final List<String> propertyNames;
+
+        private PlanKey(List<String> propertyNames) {
+            this.propertyNames = propertyNames;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof PlanKey && Objects.equals(propertyNames, ((PlanKey) obj).propertyNames);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(propertyNames);
+        }
+    }
+
+    public static final class Key<T> {
+        private final BeanEquivalence<T> equivalence;
+        private final T bean;
+        private final int hash;
+
+        private Key(BeanEquivalence<T> equivalence, T bean) {
+            this.equivalence = equivalence;
+            this.bean = bean;
+            this.hash = equivalence.hash(bean);
+        }
+
+        public T getBean() {
+            return bean;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key<T> other = (Key<T>) obj;
+            return equivalence == other.equivalence && hash == other.hash && equivalence.equivalent(bean, other.bean);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,469 @@
+package org.pc.reflection.property;
+
+import org.pc.reflection.exception.ReflectionException;
+import org.pc.reflection.factory.ConstructorInstantiator;
+import org.pc.reflection.factory.DefaultObjectFctory;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.PriorityBlockingQueue;
+
+/**
+ *     深拷贝工具，每个类只编译一次拷贝计划（ClonePlan）：
+ *     1、不可变类型（String、包装类、枚举、java.time 等）直接共享，不做拷贝；
+ *     2、数组整体拷贝，元素是不可变类型时使用 System#arraycopy()；
+ *     3、集合和 Map 重新创建，无法直接实例化的实现类（如 Arrays$ArrayList）按 DefaultObjectFctory#resolveInterface()
+ *        转换成默认的实现类；SortedSet、SortedMap、PriorityQueue 保留其比较器，EnumSet、EnumMap 按原类型拷贝；
+ *     4、其他 JDK 类型（java.*、javax.*）不会通过反射访问其内部字段：实现了 Cloneable 且有 public clone() 的
+ *        （如 Date、Calendar）调用 clone()，其余的视为不可变类型直接共享；
+ *     5、其他对象按属性逐个拷贝，基本类型的属性不会装箱。父类是声明了字段的 JDK 类型时无法拷贝，抛出 ReflectionException。
+ *     只有对象图中可能存在循环引用或共享引用时（即根对象存在需要深拷贝的属性），才会使用 IdentityHashMap
+ * 记录已拷贝的对象。
+ */
+public class DeepCloner {
+    private static final int SHARE = 0;
+    private static final int ARRAY = 1;
+    private static final int COLLECTION = 2;
+    private static final int MAP = 3;
+    private static final int BEAN = 4;
+    private static final int ENUM_SET = 5;
+    private static final int ENUM_MAP = 6;
+    private static final int CLONE = 7;
+
+    /**
+     * 正在通过构造器创建的对象的占位符，再次遇到说明存在无法处理的循环引用
+     */
+    private static final Object IN_PROGRESS = new Object();
+
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>(Arrays.<Class<?>>asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, BigDecimal.class, BigInteger.class, Class.class, UUID.class, Locale.class,
+            Currency.class, Object.class));
+
+    private final DefaultObjectFctory objectFactory;
+    private final ConcurrentMap<Class<?>, ClonePlan> plans = new ConcurrentHashMap<>();
+
+    public DeepCloner() {
+        this(new DefaultObjectFctory());
+    }
+
+    public DeepCloner(DefaultObjectFctory objectFactory) {
+        this.objectFactory = objectFactory;
+    }
+
+    /**
+     * 深拷贝一个对象
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T deepClone(T source) {
+        if (source == null) {
+            return null;
+        }
+        ClonePlan plan = getPlan(source.getClass());
+        Map<Object, Object> cloned = plan.mayShareReferences ? new IdentityHashMap<>() : null;
+        return (T) plan.clone(source, cloned);
+    }
+
+    private ClonePlan getPlan(Class<?> type) {
+        return plans.computeIfAbsent(type, ClonePlan::new);
+    }
+
+    private static boolean isJdkType(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.");
+    }
+
+    private static boolean isImmutable(Class<?> type) {
+        return type.isPrimitive() || type.isEnum() || IMMUTABLE_TYPES.contains(type)
+                || (Modifier.isFinal(type.getModifiers()) && type.getName().startsWith("java.time."));
+    }
+
+    /**
+     * @return 有序集合、有序 Map 或优先队列的比较器，自然顺序或其他类型返回 null
+     */
+    private static Comparator<?> comparatorOf(Object source) {
+        if (source instanceof SortedSet) {
+            return ((SortedSet<?>) source).comparator();
+        } else if (source instanceof SortedMap) {
+            return ((SortedMap<?, ?>) source).comparator();
+        } else if (source instanceof PriorityQueue) {
+            return ((PriorityQueue<?>) source).comparator();
+        } else if (source instanceof PriorityBlockingQueue) {
+            return ((PriorityBlockingQueue<?>) source).comparator();
+        }
+        return null;
+    }
+
+    private Object cloneValue(Object value, Map<Object, Object> cloned) {
+        if (value == null) {
+            return null;
+        }
+        return getPlan(value.getClass()).clone(value, cloned);
+    }
+
+    private final class ClonePlan {
+        private final Class<?> type;
+        private final int strategy;
+        /**
+         * 数组：元素是否为不可变类型
+         */
+        private boolean immutableComponents;
+        /**
+         * 集合、Map 及普通对象：用于创建新实例的无参构造器
+         */
+        private Constructor<?> constructor;
+        /**
+         * 有比较器的集合和 Map：接受 Comparator 的构造器，原对象的 comparator() 不为 null 时使用
+         */
+        private Constructor<?> comparatorConstructor;
+        /**
+         * 实现了 Cloneable 的 JDK 类型：public clone() 方法
+         */
+        private Method cloneMethod;
+        /**
+         * 普通对象：没有无参构造器时通过构造器一次性创建
+         */
+        private ConstructorInstantiator instantiator;
+        private FieldCloner[] fields;
+        private final boolean mayShareReferences;
+
+        private ClonePlan(Class<?> type) {
+            this.type = type;
+            if (type.isEnum() || (type.getSuperclass() != null && type.getSuperclass().isEnum()) || isImmutable(type)) {
+                strategy = SHARE;
+                mayShareReferences = false;
+            } else if (type.isArray()) {
+                strategy = ARRAY;
+                immutableComponents = isImmutable(type.getComponentType())
+                        && type.getComponentType() != Object.class;
+                mayShareReferences = !immutableComponents;
+            } else if (EnumSet.class.isAssignableFrom(type)) {
+                //元素都是枚举，不需要深拷贝
+                strategy = ENUM_SET;
+                mayShareReferences = false;
+            } else if (EnumMap.class.isAssignableFrom(type)) {
+                strategy = ENUM_MAP;
+                mayShareReferences = true;
+            } else if (Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)) {
+                strategy = Map.class.isAssignableFrom(type) ? MAP : COLLECTION;
+                constructor = findDefaultConstructor(type);
+                if (constructor == null) {
+                    constructor = findDefaultConstructor(objectFactory.resolveInterface(defaultInterface(type)));
+                }
+                comparatorConstructor = findComparatorConstructor(type);
+                mayShareReferences = true;
+            } else if (isJdkType(type)) {
+                cloneMethod = Cloneable.class.isAssignableFrom(type) ? findCloneMethod(type) : null;
+                strategy = cloneMethod != null ? CLONE : SHARE;
+                mayShareReferences = false;
+            } else {
+                strategy = BEAN;
+                constructor = findDefaultConstructor(type);
+                if (constructor == null) {
+                    instantiator = ConstructorInstantiator.forClass(type);
+                }
+                List<FieldCloner> cloners = new ArrayList<>();
+                boolean deep = false;
+                for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                    for (Field field : current.getDeclaredFields()) {
+                        if (Modifier.isStatic(field.getModifiers())) {
+                            continue;
+                        }
+                        if (isJdkType(current)) {
+                            throw new ReflectionException("Cannot deep clone " + type + ", the fields of its superclass "
+                                    + current.getName() + " are not accessible");
+                        }
+                        try {
+                            field.setAccessible(true);
+                        } catch (RuntimeException e) {
+                            throw new ReflectionException("Could not access field '" + field.getName() + "' of "
+                                    + current + ". Cause: " + e, e);
+                        }
+                        FieldCloner cloner = new FieldCloner(field);
+                        deep |= cloner.deep;
+                        cloners.add(cloner);
+                    }
+                }
+                fields = cloners.toArray(new FieldCloner[0]);
+                mayShareReferences = deep;
+            }
+        }
+
+        private Class<?> defaultInterface(Class<?> type) {
+            if (SortedMap.class.isAssignableFrom(type)) {
+                return TreeMap.class;
+            } else if (Map.class.isAssignableFrom(type)) {
+                return Map.class;
+            } else if (SortedSet.class.isAssignableFrom(type)) {
+                return SortedSet.class;
+            } else if (Set.class.isAssignableFrom(type)) {
+                return Set.class;
+            }
+            return List.class;
+        }
+
+        /**
+         * TreeSet、TreeMap、ConcurrentSkipListSet/Map、PriorityQueue 等都有接受 Comparator 的构造器，
+         * PriorityBlockingQueue 只有 (int, Comparator)
+         */
+        private Constructor<?> findComparatorConstructor(Class<?> clazz) {
+            if (!SortedSet.class.isAssignableFrom(clazz)
+                    && !SortedMap.class.isAssignableFrom(clazz) && !PriorityQueue.class.isAssignableFrom(clazz)
+                    && !PriorityBlockingQueue.class.isAssignableFrom(clazz)) {
+                return null;
+            }
+            for (Class<?>[] parameterTypes : new Class<?>[][]{{Comparator.class}, {int.class, Comparator.class}}) {
+                if (Modifier.isAbstract(clazz.getModifiers())) {
+                    return null;
+                }
+                try {
+                    Constructor<?> ctor = clazz.getConstructor(parameterTypes);
+                    if (!isJdkType(clazz)) {
+                        ctor.setAccessible(true);
+                    }
+                    return ctor;
+                } catch (NoSuchMethodException e) {
+                    //继续尝试下一种
+                }
+            }
+            return null;
+        }
+
+        private Method findCloneMethod(Class<?> clazz) {
+            try {
+                Method method = clazz.getMethod("clone");
+                return Modifier.isPublic(method.getDeclaringClass().getModifiers()) ? method : null;
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        private Constructor<?> findDefaultConstructor(Class<?> clazz) {
+            if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) {
+                return null;
+            }
+            try {
+                Constructor<?> ctor = clazz.getDeclaredConstructor();
+                ctor.setAccessible(true);
+                return ctor;
+            } catch (Exception e) {
+                return null;
+            }
+        }
+
+        private Object clone(Object source, Map<Object, Object> cloned) {
+            if (strategy == SHARE) {
+                return source;
+            }
+            if (cloned != null) {
+                Object existing = cloned.get(source);
+                if (existing == IN_PROGRESS) {
+                    throw new ReflectionException("Cannot deep clone cyclic reference to " + type
+                            + " which has no default constructor");
+                } else if (existing != null) {
+                    return existing;
+                }
+            }
+            try {
+                switch (strategy) {
+                    case ENUM_SET:
+                        return cloneEnumSet(source, cloned);
+                    case ENUM_MAP:
+                        return cloneEnumMap(source, cloned);
+                    case CLONE:
+                        return cloneMethod.invoke(source);
+                    case ARRAY:
+                        return cloneArray(source, cloned);
+                    case COLLECTION:
+                        return cloneCollection(source, cloned);
+                    case MAP:
+                        return cloneMap(source, cloned);
+                    default:
+                        return cloneBean(source, cloned);
+                }
+            } catch (ReflectionException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ReflectionException("Error deep cloning " + type + ". Cause: " + e, e);
+            }
+        }
+
+        private Object cloneArray(Object source, Map<Object, Object> cloned) {
+            int length = Array.getLength(source);
+            Object target = Array.newInstance(type.getComponentType(), length);
+            if (cloned != null) {
+                cloned.put(source, target);
+            }
+            if (immutableComponents) {
+                System.arraycopy(source, 0, target, 0, length);
+            } else {
+                Object[] src = (Object[]) source;
+                Object[] dest = (Object[]) target;
+                for (int i = 0; i < length; i++) {
+                    dest[i] = cloneValue(src[i], cloned);
+                }
+            }
+            return target;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object cloneCollection(Object source, Map<Object, Object> cloned) throws Exception {
+            Collection<Object> src = (Collection<Object>) source;
+            Collection<Object> target;
+            Comparator<?> comparator = comparatorOf(src);
+            if (comparator != null) {
+                target = (Collection<Object>) newWithComparator(comparator, src.size());
+            } else {
+                target = (Collection<Object>) constructor.newInstance();
+            }
+            if (cloned != null) {
+                cloned.put(source, target);
+            }
+            for (Object element : src) {
+                target.add(cloneValue(element, cloned));
+            }
+            return target;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object cloneMap(Object source, Map<Object, Object> cloned) throws Exception {
+            Map<Object, Object> src = (Map<Object, Object>) source;
+            Map<Object, Object> target;
+            Comparator<?> comparator = comparatorOf(src);
+            if (comparator != null) {
+                target = (Map<Object, Object>) newWithComparator(comparator, src.size());
+            } else {
+                target = (Map<Object, Object>) constructor.newInstance();
+            }
+            if (cloned != null) {
+                cloned.put(source, target);
+            }
+            for (Map.Entry<Object, Object> entry : src.entrySet()) {
+                target.put(cloneValue(entry.getKey(), cloned), cloneValue(entry.getValue(), cloned));
+            }
+            return target;
+        }
+
+        /**
+         * 没有合适的构造器时（例如 Collections$UnmodifiableSortedSet）退回到 TreeSet/TreeMap/PriorityQueue
+         */
+        private Object newWithComparator(Comparator<?> comparator, int size) throws Exception {
+            if (comparatorConstructor != null) {
+                return comparatorConstructor.getParameterCount() == 1 ? comparatorConstructor.newInstance(comparator)
+                        : comparatorConstructor.newInstance(Math.max(1, size), comparator);
+            } else if (SortedMap.class.isAssignableFrom(type)) {
+                return new TreeMap<>(comparator);
+            } else if (SortedSet.class.isAssignableFrom(type)) {
+                return new TreeSet<>(comparator);
+            }
+            return new PriorityQueue<>(Math.max(1, size), comparator);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object cloneEnumSet(Object source, Map<Object, Object> cloned) {
+            Object target = ((EnumSet) source).clone();
+            if (cloned != null) {
+                cloned.put(source, target);
+            }
+            return target;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object cloneEnumMap(Object source, Map<Object, Object> cloned) {
+            //键都是枚举，保留原来的键类型，只深拷贝值
+            EnumMap target = new EnumMap((EnumMap) source);
+            if (cloned != null) {
+                cloned.put(source, target);
+            }
+            for (Object entry : target.entrySet()) {
+                Map.Entry e = (Map.Entry) entry;
+                e.setValue(cloneValue(e.getValue(), cloned));
+            }
+            return target;
+        }
+
+        private Object cloneBean(Object source, Map<Object, Object> cloned) throws Exception {
+            if (constructor != null) {
+                Object target = constructor.newInstance();
+                if (cloned != null) {
+                    cloned.put(source, target);
+                }
+                for (FieldCloner field : fields) {
+                    field.copy(source, target, cloned);
+                }
+                return target;
+            }
+            //没有无参构造器，先拷贝属性值，再通过构造器一次性创建
+            if (cloned != null) {
+                cloned.put(source, IN_PROGRESS);
+            }
+            Object[] values = new Object[instantiator.getSlotCount()];
+            for (FieldCloner field : fields) {
+                int slot = instantiator.getSlot(field.field.getName());
+                if (slot >= 0) {
+                    values[slot] = field.cloneFieldValue(source, cloned);
+                }
+            }
+            Object target = instantiator.newInstance(values);
+            if (cloned != null) {
+                cloned.put(source, target);
+            }
+            for (FieldCloner field : fields) {
+                if (instantiator.getSlot(field.field.getName()) < 0) {
+                    field.copy(source, target, cloned);
+                }
+            }
+            return target;
+        }
+    }
+
+    private final class FieldCloner {
+        private final Field field;
+        private final Class<?> fieldType;
+        /**
+         * 属性值是否需要深拷贝（即不是基本类型，也不是不可变类型）
+         */
+        private final boolean deep;
+
+        private FieldCloner(Field field) {
+            this.field = field;
+            this.fieldType = field.getType();
+            this.deep = !isImmutable(fieldType) || fieldType == Object.class;
+        }
+
+        private Object cloneFieldValue(Object source, Map<Object, Object> cloned) throws IllegalAccessException {
+            Object value = field.get(source);
+            return deep ? cloneValue(value, cloned) : value;
+        }
+
+        private void copy(Object source, Object target, Map<Object, Object> cloned) throws IllegalAccessException {
+            if (fieldType == int.class) {
+                field.setInt(target, field.getInt(source));
+            } else if (fieldType == long.class) {
+                field.setLong(target, field.getLong(source));
+            } else if (fieldType == double.class) {
+                field.setDouble(target, field.getDouble(source));
+            } else if (fieldType == boolean.class) {
+                field.setBoolean(target, field.getBoolean(source));
+            } else if (fieldType == float.class) {
+                field.setFloat(target, field.getFloat(source));
+            } else if (fieldType == short.class) {
+                field.setShort(target, field.getShort(source));
+            } else if (fieldType == byte.class) {
+                field.setByte(target, field.getByte(source));
+            } else if (fieldType == char.class) {
+                field.setChar(target, field.getChar(source));
+            } else {
+                field.set(target, cloneFieldValue(source, cloned));
+            }
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package org.pc.reflection.property;
+
+import org.pc.reflection.exception.ReflectionException;
+import org.pc.reflection.factory.DefaultReflectorFactory;
+import org.pc.reflection.factory.ReflectorFactory;
+import org.pc.reflection.invoker.TypedGetter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ *     根据排序表达式编译出的比较器，例如 "customer.region, total desc, remark asc nulls last"。每一项由属性表达式、
+ * 可选的 asc/desc 以及可选的 nulls first/nulls last 组成，属性表达式通过 PropertyExtractor 解析为 getter 链，
+ * 基本类型的属性不会装箱，引用类型的属性按 Comparable 比较。
+ *     属性值为 null（或属性表达式中间某一级为 null）时按 null 排序规则处理，该规则不受 desc 影响，
+ * 没有指定时使用创建比较器时的默认规则。
+ *     对大量对象排序时可以使用 sort()，每个对象的排序键只提取一次，之后在提取出的键上排序，并可以并行执行。
+ */
+public class PropertyComparator<T> implements Comparator<T> {
+    private final Class<T> type;
+    private final String expression;
+    private final SortKey[] keys;
+
+    private PropertyComparator(Class<T> type, String expression, boolean nullsFirst, ReflectorFactory reflectorFactory) {
+        this.type = type;
+        this.expression = expression;
+        List<SortKey> sortKeys = new ArrayList<>();
+        for (String item : expression.split(",")) {
+            sortKeys.add(parse(type, item.trim(), nullsFirst, expression, reflectorFactory));
+        }
+        keys = sortKeys.toArray(new SortKey[0]);
+    }
+
+    /**
+     * 根据排序表达式获取比较器，null 排在最前面，使用 DefaultReflectorFactory#getDefault()
+     */
+    public static <T> PropertyComparator<T> forExpression(Class<T> type, String expression) {
+        return forExpression(type, expression, true, DefaultReflectorFactory.getDefault());
+    }
+
+    /**
+     * 根据排序表达式获取比较器，使用 DefaultReflectorFactory#getDefault()
+     * @param nullsFirst 表达式中没有指定 nulls first/last 时，null 是否排在最前面
+     */
+    public static <T> PropertyComparator<T> forExpression(Class<T> type, String expression, boolean nullsFirst) {
+        return forExpression(type, expression, nullsFirst, DefaultReflectorFactory.getDefault());
+    }
+
+    /**
+     * 根据排序表达式获取比较器，null 排在最前面
+     */
+    public static <T> PropertyComparator<T> forExpression(Class<T> type, String expression, ReflectorFactory reflectorFactory) {
+        return forExpression(type, expression, true, reflectorFactory);
+    }
+
+    /**
+     *     根据排序表达式获取比较器。表达式中各级属性的 Reflector 都从 reflectorFactory 获取，结果随根类型的 Reflector
+     * 一起缓存在 reflectorFactory 中。
+     * @param nullsFirst 表达式中没有指定 nulls first/last 时，null 是否排在最前面
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PropertyComparator<T> forExpression(Class<T> type, String expression, boolean nullsFirst,
+                                                          ReflectorFactory reflectorFactory) {
+        ConcurrentMap<String, PropertyComparator<?>> comparators = reflectorFactory.findForClass(type)
+                .getPlan(PropertyComparator.class, reflector -> new ConcurrentHashMap<String, PropertyComparator<?>>());
+        String cacheKey = (nullsFirst ? "F:" : "L:") + expression;
+        return (PropertyComparator<T>) comparators.computeIfAbsent(cacheKey,
+                k -> new PropertyComparator<>(type, expression, nullsFirst, reflectorFactory));
+    }
+
+    private static SortKey parse(Class<?> type, String item, boolean nullsFirst, String expression,
+                                 ReflectorFactory reflectorFactory) {
+        String[] tokens = item.split("\\s+");
+        if (item.isEmpty()) {
+            throw new ReflectionException("Empty sort key in expression '" + expression + "'");
+        }
+        boolean descending = false;
+        int i = 1;
+        if (i < tokens.length) {
+            String direction = tokens[i].toLowerCase(Locale.ENGLISH);
+            if ("desc".equals(direction)) {
+                descending = true;
+                i++;
+            } else if ("asc".equals(direction)) {
+                i++;
+            }
+        }
+        if (i + 1 < tokens.length && "nulls".equalsIgnoreCase(tokens[i])) {
+            String order = tokens[i + 1].toLowerCase(Locale.ENGLISH);
+            if ("first".equals(order)) {
+                nullsFirst = true;
+            } else if ("last".equals(order)) {
+                nullsFirst = false;
+            } else {
+                throw new ReflectionException("Invalid null ordering '" + tokens[i + 1] + "' in expression '" + expression + "'");
+            }
+            i += 2;
+        }
+        if (i != tokens.length) {
+            throw new ReflectionException("Invalid sort key '" + item + "' in expression '" + expression + "'");
+        }
+        return new SortKey(PropertyExtractor.forPath(type, tokens[0], reflectorFactory), descending, nullsFirst);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    @Override
+    public int compare(T a, T b) {
+        for (SortKey key : keys) {
+            int c = key.compare(a, b);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    public void sort(List<T> list) {
+        sort(list, false);
+    }
+
+    /**
+     *     先提取每个对象的排序键，再在提取出的键上排序（稳定排序），最后按顺序写回 list。
+     * @param parallel 为 true 时并行提取排序键，并使用 Arrays#parallelSort() 排序，适合数百万级别的列表
+     */
+    @SuppressWarnings("unchecked")
+    public void sort(List<T> list, boolean parallel) {
+        Object[] beans = list.toArray();
+        int length = beans.length;
+        Row[] rows = new Row[length];
+        Object[][] extracted = new Object[keys.length][];
+        for (int k = 0; k < keys.length; k++) {
+            extracted[k] = keys[k].newColumns(length);
+        }
+        PropertyExtractor.run(length, parallel, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                rows[i] = new Row(i, beans[i]);
+                for (int k = 0; k < keys.length; k++) {
+                    keys[k].extract(beans[i], i, extracted[k]);
+                }
+            }
+        });
+        Comparator<Row> comparator = (x, y) -> {
+            for (int k = 0; k < keys.length; k++) {
+                int c = keys[k].compareExtracted(extracted[k], x.index, y.index);
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return 0;
+        };
+        if (parallel) {
+            Arrays.parallelSort(rows, comparator);
+        } else {
+            Arrays.sort(rows, comparator);
+        }
+        ListIterator<T> iterator = list.listIterator();
+        for (Row row : rows) {
+            iterator.next();
+            iterator.set((T) row.bean);
+        }
+    }
+
+    private static final class Row {
+        private final int index;
+        private final Object bean;
+
+        private Row(int index, Object bean) {
+            this.index = index;
+            this.bean = bean;
+        }
+    }
+
+    /**
+     * 排序表达式中的一项
+     */
+    private static final class SortKey {
+        private final PropertyExtractor extractor;
+        private final TypedGetter getter;
+        private final int kind;
+        private final boolean descending;
+        private final boolean nullsFirst;
+
+        private SortKey(PropertyExtractor extractor, boolean descending, boolean nullsFirst) {
+            this.extractor = extractor;
+            this.getter = extractor.getGetter();
+            this.kind = PropertyKind.kindOf(getter.getType());
+            this.descending = descending;
+            this.nullsFirst = nullsFirst;
+        }
+
+        int compare(Object a, Object b) {
+            Object ownerA = a == null ? null : extractor.resolveOwner(a);
+            Object ownerB = b == null ? null : extractor.resolveOwner(b);
+            if (ownerA == null || ownerB == null) {
+                return compareNulls(ownerA == null, ownerB == null);
+            }
+            int c;
+            switch (kind) {
+                case PropertyKind.BOOLEAN:
+                    c = Boolean.compare(getter.getBoolean(ownerA), getter.getBoolean(ownerB));
+                    break;
+                case PropertyKind.INT:
+                    c = Integer.compare(getter.getInt(ownerA), getter.getInt(ownerB));
+                    break;
+                case PropertyKind.LONG:
+                    c = Long.compare(getter.getLong(ownerA), getter.getLong(ownerB));
+                    break;
+                case PropertyKind.FLOAT:
+                    c = Float.compare(getter.getFloat(ownerA), getter.getFloat(ownerB));
+                    break;
+                case PropertyKind.DOUBLE:
+                    c = Double.compare(getter.getDouble(ownerA), getter.getDouble(ownerB));
+                    break;
+                default:
+                    Object va = getter.get(ownerA);
+                    Object vb = getter.get(ownerB);
+                    if (va == null || vb == null) {
+                        return compareNulls(va == null, vb == null);
+                    }
+                    c = compareReferences(va, vb);
+            }
+            return descending ? -c : c;
+        }
+
+        /**
+         * 提取出的排序键：[0] 为值数组（long[]、double[] 或 Object[]），[1] 为 boolean[]，记录值是否为 null
+         */
+        Object[] newColumns(int length) {
+            Object values;
+            if (kind == PropertyKind.FLOAT || kind == PropertyKind.DOUBLE) {
+                values = new double[length];
+            } else if (kind == PropertyKind.REFERENCE) {
+                values = new Object[length];
+            } else {
+                values = new long[length];
+            }
+            return new Object[]{values, new boolean[length]};
+        }
+
+        void extract(Object bean, int row, Object[] columns) {
+            Object owner = bean == null ? null : extractor.resolveOwner(bean);
+            if (owner == null) {
+                ((boolean[]) columns[1])[row] = true;
+                return;
+            }
+            switch (kind) {
+                case PropertyKind.BOOLEAN:
+                    ((long[]) columns[0])[row] = getter.getBoolean(owner) ? 1 : 0;
+                    break;
+                case PropertyKind.INT:
+                    ((long[]) columns[0])[row] = getter.getInt(owner);
+                    break;
+                case PropertyKind.LONG:
+                    ((long[]) columns[0])[row] = getter.getLong(owner);
+                    break;
+                case PropertyKind.FLOAT:
+                case PropertyKind.DOUBLE:
+                    //float 拓宽为 double 不会改变比较结果
+                    ((double[]) columns[0])[row] = getter.getDouble(owner);
+                    break;
+                default:
+                    Object value = getter.get(owner);
+                    ((Object[]) columns[0])[row] = value;
+                    ((boolean[]) columns[1])[row] = value == null;
+            }
+        }
+
+        int compareExtracted(Object[] columns, int x, int y) {
+            boolean[] nulls = (boolean[]) columns[1];
+            if (nulls[x] || nulls[y]) {
+                return compareNulls(nulls[x], nulls[y]);
+            }
+            int c;
+            if (kind == PropertyKind.FLOAT || kind == PropertyKind.DOUBLE) {
+                double[] values = (double[]) columns[0];
+                c = Double.compare(values[x], values[y]);
+            } else if (kind == PropertyKind.REFERENCE) {
+                Object[] values = (Object[]) columns[0];
+                c = compareReferences(values[x], values[y]);
+            } else {
+                long[] values = (long[]) columns[0];
+                c = Long.compare(values[x], values[y]);
+            }
+            return descending ? -c : c;
+        }
+
+        private int compareNulls(boolean aNull, boolean bNull) {
+            if (aNull == bNull) {
+                return 0;
+            }
+            return aNull == nullsFirst ? -1 : 1;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private int compareReferences(Object a, Object b) {
+            if (a instanceof Comparable) {
+                return ((Comparable) a).compareTo(b);
+            }
+            throw new ReflectionException("Property '" + extractor.getPath() + "' of type " + a.getClass().getName()
+                    + " is not Comparable");
+        }
+    }
+}
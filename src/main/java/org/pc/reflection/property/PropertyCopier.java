@@ -1,6 +1,14 @@
 package org.pc.reflection.property;
 
+import org.pc.reflection.Reflector;
+import org.pc.reflection.exception.ReflectionException;
+import org.pc.reflection.factory.DefaultReflectorFactory;
+import org.pc.reflection.factory.ReflectorFactory;
+import org.pc.reflection.invoker.TypedGetter;
+import org.pc.reflection.invoker.TypedSetter;
+
 import java.lang.reflect.Field;
+import java.util.BitSet;
 
 public final class PropertyCopier {
     private  PropertyCopier() {}
@@ -19,4 +27,136 @@ public final class PropertyCopier {
             parent = parent.getSuperclass();
         }
     }
+
+    /**
+     * 只复制 slots 中标记的属性，使用 DefaultReflectorFactory#getDefault()
+     */
+    public static void copyBeanProperties(Class<?> type, Object sourceBean, Object destinationBean, BitSet slots) {
+        copyBeanProperties(type, sourceBean, destinationBean, slots, DefaultReflectorFactory.getDefault());
+    }
+
+    /**
+     *     只复制 slots 中标记的属性。复制计划与 BeanDiffer#forClass(Class, ReflectorFactory) 建立在同一个 Reflector 上，
+     * 槽位即属性在 Reflector#getGetablePropertyNames() 中的下标，因此可以直接使用通过同一个工厂得到的
+     * BeanDiffer#diff() 的结果。耗时只与标记的属性个数有关，与类的属性总数无关。没有 setter 的属性会被跳过，
+     * 超出属性个数的槽位会抛出 ReflectionException。
+     */
+    public static void copyBeanProperties(Class<?> type, Object sourceBean, Object destinationBean, BitSet slots,
+                                          ReflectorFactory reflectorFactory) {
+        plan(type, reflectorFactory).copy(sourceBean, destinationBean, slots, false);
+    }
+
+    /**
+     * 复制所有值不为 null 的属性，基本类型的属性不会为 null，总是被复制
+     */
+    public static void copyNonNullBeanProperties(Class<?> type, Object sourceBean, Object destinationBean) {
+        copyNonNullBeanProperties(type, sourceBean, destinationBean, DefaultReflectorFactory.getDefault());
+    }
+
+    public static void copyNonNullBeanProperties(Class<?> type, Object sourceBean, Object destinationBean,
+                                                 ReflectorFactory reflectorFactory) {
+        CopyPlan plan = plan(type, reflectorFactory);
+        plan.copy(sourceBean, destinationBean, plan.allSlots, true);
+    }
+
+    /**
+     * 只复制 slots 中标记的、且值不为 null 的属性
+     */
+    public static void copyNonNullBeanProperties(Class<?> type, Object sourceBean, Object destinationBean, BitSet slots) {
+        copyNonNullBeanProperties(type, sourceBean, destinationBean, slots, DefaultReflectorFactory.getDefault());
+    }
+
+    public static void copyNonNullBeanProperties(Class<?> type, Object sourceBean, Object destinationBean, BitSet slots,
+                                                 ReflectorFactory reflectorFactory) {
+        plan(type, reflectorFactory).copy(sourceBean, destinationBean, slots, true);
+    }
+
+    /**
+     * 复制计划随 Reflector 一起缓存在 reflectorFactory 中，每个 Reflector 只生成一次
+     */
+    private static CopyPlan plan(Class<?> type, ReflectorFactory reflectorFactory) {
+        return reflectorFactory.findForClass(type).getPlan(CopyPlan.class, CopyPlan::new);
+    }
+
+    /**
+     * 按槽位预先生成的 getter/setter，基本类型的属性按 PropertyKind 读写，不会装箱
+     */
+    private static final class CopyPlan {
+        private final Class<?> type;
+        private final TypedGetter[] getters;
+        /**
+         * 没有 setter 的属性对应的元素为 null
+         */
+        private final TypedSetter[] setters;
+        private final int[] kinds;
+        private final BitSet allSlots;
+
+        CopyPlan(Reflector reflector) {
+            type = reflector.getType();
+            String[] propertyNames = reflector.getGetablePropertyNames();
+            getters = new TypedGetter[propertyNames.length];
+            setters = new TypedSetter[propertyNames.length];
+            kinds = new int[propertyNames.length];
+            allSlots = new BitSet(propertyNames.length);
+            for (int slot = 0; slot < propertyNames.length; slot++) {
+                String name = propertyNames[slot];
+                getters[slot] = TypedGetter.forInvoker(reflector.getGetInvoker(name));
+                Class<?> getterType = getters[slot].getType();
+                //getter 与 setter 类型不一致（例如 setter 接收父类型）时按引用类型复制
+                if (reflector.hasSetter(name)) {
+                    setters[slot] = TypedSetter.forInvoker(reflector.getSetInvoker(name));
+                    kinds[slot] = setters[slot].getType() == getterType
+                            ? PropertyKind.exactKindOf(getterType) : PropertyKind.REFERENCE;
+                    allSlots.set(slot);
+                } else {
+                    kinds[slot] = PropertyKind.REFERENCE;
+                }
+            }
+        }
+
+        void copy(Object source, Object destination, BitSet slots, boolean skipNull) {
+            if (slots.length() > setters.length) {
+                throw new ReflectionException("Slot " + (slots.length() - 1) + " is out of range for " + type
+                        + ", which has " + setters.length + " readable properties");
+            }
+            for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+                TypedSetter setter = setters[slot];
+                if (setter == null) {
+                    continue;
+                }
+                TypedGetter getter = getters[slot];
+                switch (kinds[slot]) {
+                    case PropertyKind.BOOLEAN:
+                        setter.setBoolean(destination, getter.getBoolean(source));
+                        break;
+                    case PropertyKind.BYTE:
+                        setter.setByte(destination, getter.getByte(source));
+                        break;
+                    case PropertyKind.SHORT:
+                        setter.setShort(destination, getter.getShort(source));
+                        break;
+                    case PropertyKind.CHAR:
+                        setter.setChar(destination, getter.getChar(source));
+                        break;
+                    case PropertyKind.INT:
+                        setter.setInt(destination, getter.getInt(source));
+                        break;
+                    case PropertyKind.LONG:
+                        setter.setLong(destination, getter.getLong(source));
+                        break;
+                    case PropertyKind.FLOAT:
+                        setter.setFloat(destination, getter.getFloat(source));
+                        break;
+                    case PropertyKind.DOUBLE:
+                        setter.setDouble(destination, getter.getDouble(source));
+                        break;
+                    default:
+                        Object value = getter.get(source);
+                        if (value != null || !skipNull) {
+                            setter.set(destination, value);
+                        }
+                }
+            }
+        }
+    }
 }
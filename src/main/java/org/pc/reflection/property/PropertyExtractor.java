@@ -0,0 +1,224 @@
+package org.pc.reflection.property;
+
+import org.pc.reflection.MetaClass;
+import org.pc.reflection.exception.ReflectionException;
+import org.pc.reflection.factory.DefaultReflectorFactory;
+import org.pc.reflection.factory.ReflectorFactory;
+import org.pc.reflection.invoker.TypedGetter;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ *     从大量同类型对象中批量提取某个属性（支持 customer.address.zip 这样的属性表达式）的值，放入基本类型数组
+ * 或 Object[] 中。属性表达式通过 MetaClass/PropertyTokenizer 只解析一次，得到一条 getter 链，最后一级属性
+ * 通过 TypedGetter 读取，基本类型不会装箱。中间某一级属性为 null 时，结果取默认值（0 或 null）。
+ *     数据量很大时可以开启并行模式，在 ForkJoin 公共线程池中分段提取。
+ */
+public class PropertyExtractor {
+    /**
+     * 并行模式下每个任务处理的最少元素个数
+     */
+    private static final int PARALLEL_THRESHOLD = 8192;
+
+    private final String path;
+    /**
+     * 表达式中除最后一级以外的各级属性
+     */
+    private final TypedGetter[] parents;
+    private final TypedGetter getter;
+
+    public PropertyExtractor(MetaClass metaClass, String path) {
+        this.path = path;
+        List<TypedGetter> chain = new ArrayList<>();
+        PropertyTokenizer prop = new PropertyTokenizer(path);
+        while (prop.hasNext()) {
+            checkIndex(prop);
+            chain.add(TypedGetter.forInvoker(metaClass.getGetInvoker(prop.getName())));
+            metaClass = metaClass.metaClassForProperty(prop.getName());
+            prop = prop.next();
+        }
+        checkIndex(prop);
+        parents = chain.toArray(new TypedGetter[0]);
+        getter = TypedGetter.forInvoker(metaClass.getGetInvoker(prop.getName()));
+    }
+
+    /**
+     * 获取指定类型、指定属性表达式的 PropertyExtractor，使用 DefaultReflectorFactory#getDefault()
+     */
+    public static PropertyExtractor forPath(Class<?> type, String path) {
+        return forPath(type, path, DefaultReflectorFactory.getDefault());
+    }
+
+    /**
+     *     获取指定类型、指定属性表达式的 PropertyExtractor。表达式中各级属性的 Reflector 都从 reflectorFactory 获取，
+     * 结果随根类型的 Reflector 一起缓存在 reflectorFactory 中。
+     */
+    public static PropertyExtractor forPath(Class<?> type, String path, ReflectorFactory reflectorFactory) {
+        ConcurrentMap<String, PropertyExtractor> extractors = reflectorFactory.findForClass(type)
+                .getPlan(PropertyExtractor.class, reflector -> new ConcurrentHashMap<String, PropertyExtractor>());
+        return extractors.computeIfAbsent(path, p -> new PropertyExtractor(MetaClass.forClass(type, reflectorFactory), p));
+    }
+
+    private static void checkIndex(PropertyTokenizer prop) {
+        if (prop.getIndex() != null) {
+            throw new ReflectionException("Indexed property '" + prop.getIndexedName() + "' is not supported");
+        }
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return 最后一级属性的类型
+     */
+    public Class<?> getType() {
+        return getter.getType();
+    }
+
+    /**
+     * 读取单个对象的属性值，中间某一级属性为 null 时返回 null
+     */
+    public Object get(Object bean) {
+        Object owner = resolveOwner(bean);
+        return owner == null ? null : getter.get(owner);
+    }
+
+    /**
+     * 以 long 读取单个对象的属性值，不会装箱，中间某一级属性为 null 时返回 0
+     */
+    public long getLong(Object bean) {
+        Object owner = resolveOwner(bean);
+        return owner == null ? 0 : getter.getLong(owner);
+    }
+
+    public double[] extractDoubles(Collection<?> beans) {
+        return extractDoubles(beans, false);
+    }
+
+    public double[] extractDoubles(Collection<?> beans, boolean parallel) {
+        Object[] source = toArray(beans);
+        double[] result = new double[source.length];
+        run(source, parallel, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                Object owner = resolveOwner(source[i]);
+                result[i] = owner == null ? 0 : getter.getDouble(owner);
+            }
+        });
+        return result;
+    }
+
+    public long[] extractLongs(Collection<?> beans) {
+        return extractLongs(beans, false);
+    }
+
+    public long[] extractLongs(Collection<?> beans, boolean parallel) {
+        Object[] source = toArray(beans);
+        long[] result = new long[source.length];
+        run(source, parallel, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                Object owner = resolveOwner(source[i]);
+                result[i] = owner == null ? 0 : getter.getLong(owner);
+            }
+        });
+        return result;
+    }
+
+    public int[] extractInts(Collection<?> beans) {
+        return extractInts(beans, false);
+    }
+
+    public int[] extractInts(Collection<?> beans, boolean parallel) {
+        Object[] source = toArray(beans);
+        int[] result = new int[source.length];
+        run(source, parallel, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                Object owner = resolveOwner(source[i]);
+                result[i] = owner == null ? 0 : getter.getInt(owner);
+            }
+        });
+        return result;
+    }
+
+    public Object[] extract(Collection<?> beans) {
+        return extract(beans, false);
+    }
+
+    public Object[] extract(Collection<?> beans, boolean parallel) {
+        Object[] source = toArray(beans);
+        Object[] result = new Object[source.length];
+        run(source, parallel, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                Object owner = resolveOwner(source[i]);
+                result[i] = owner == null ? null : getter.get(owner);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 沿着 getter 链找到最后一级属性所在的对象，中间某一级为 null 时返回 null
+     */
+    Object resolveOwner(Object bean) {
+        Object current = bean;
+        for (int i = 0; i < parents.length && current != null; i++) {
+            current = parents[i].get(current);
+        }
+        return current;
+    }
+
+    TypedGetter getGetter() {
+        return getter;
+    }
+
+    private static Object[] toArray(Collection<?> beans) {
+        return beans.toArray();
+    }
+
+    private static void run(Object[] source, boolean parallel, RangeTask task) {
+        run(source.length, parallel, task);
+    }
+
+    /**
+     * 对 [0, length) 执行任务，并行模式下按 PARALLEL_THRESHOLD 分段
+     */
+    static void run(int length, boolean parallel, RangeTask task) {
+        if (parallel && length > PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new RangeAction(task, 0, length));
+        } else {
+            task.run(0, length);
+        }
+    }
+
+    interface RangeTask {
+        void run(int from, int to);
+    }
+
+    private static final class RangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RangeTask task;
+        private final int from;
+        private final int to;
+
+        private RangeAction(RangeTask task, int from, int to) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                task.run(from, to);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RangeAction(task, from, mid), new RangeAction(task, mid, to));
+            }
+        }
+    }
+}
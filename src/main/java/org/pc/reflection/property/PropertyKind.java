@@ -0,0 +1,48 @@
+package org.pc.reflection.property;
+
+/**
+ *     属性值的存取方式：引用类型，或按 boolean/int/long/float/double 读取的基本类型（byte/short/char 按 int 读取）。
+ * 需要原样写回时（例如属性复制）使用 exactKindOf()，byte/short/char 有各自的存取方式。
+ */
+final class PropertyKind {
+    static final int REFERENCE = 0;
+    static final int BOOLEAN = 1;
+    static final int INT = 2;
+    static final int LONG = 3;
+    static final int FLOAT = 4;
+    static final int DOUBLE = 5;
+    static final int BYTE = 6;
+    static final int SHORT = 7;
+    static final int CHAR = 8;
+
+    private PropertyKind() {}
+
+    static int kindOf(Class<?> type) {
+        if (type == boolean.class) {
+            return BOOLEAN;
+        } else if (type == byte.class || type == short.class || type == char.class || type == int.class) {
+            return INT;
+        } else if (type == long.class) {
+            return LONG;
+        } else if (type == float.class) {
+            return FLOAT;
+        } else if (type == double.class) {
+            return DOUBLE;
+        }
+        return REFERENCE;
+    }
+
+    /**
+     * 与 kindOf() 相同，但 byte/short/char 分别对应 BYTE/SHORT/CHAR，读写时类型不变
+     */
+    static int exactKindOf(Class<?> type) {
+        if (type == byte.class) {
+            return BYTE;
+        } else if (type == short.class) {
+            return SHORT;
+        } else if (type == char.class) {
+            return CHAR;
+        }
+        return kindOf(type);
+    }
+}
@@ -14,18 +14,31 @@ public final class PropertyName {
      * @return 属性名
      */
     public static String methodToProperty(String methodName) {
+        int start;
         if (methodName.startsWith("is")) {
-            methodName = methodName.substring(2);
+            start = 2;
         } else if (methodName.startsWith("get") || methodName.startsWith("set")) {
-            methodName = methodName.substring(3);
+            start = 3;
         } else {
             throw new ReflectionException("Error parsing property name " + methodName + ". Didn't start with 'is', 'get' or 'set'");
         }
-        //todo:为啥源码中写的是 !Character.isUpperCase(name.charAt(1)) ，不明白
-        if (methodName.length() == 1 || (methodName.length() > 1 && Character.isUpperCase(methodName.charAt(1)))) {
-            methodName = methodName.substring(0, 1).toLowerCase(Locale.ENGLISH) + methodName.substring(1);
+        int length = methodName.length() - start;
+        //第二个字符是大写时（如 getURL），按 JavaBean 规范保持原样，否则首字母转小写（getName --> name）
+        if (length == 0 || (length > 1 && Character.isUpperCase(methodName.charAt(start + 1)))) {
+            return methodName.substring(start);
         }
-        return methodName;
+        char first = methodName.charAt(start);
+        if (first >= 'A' && first <= 'Z') {
+            //ASCII 字母直接在字符数组中转小写，不创建中间字符串
+            char[] chars = new char[length];
+            methodName.getChars(start, methodName.length(), chars, 0);
+            chars[0] = (char) (first + ('a' - 'A'));
+            return new String(chars);
+        } else if (first < 128) {
+            return methodName.substring(start);
+        }
+        //非 ASCII 字符按 String#toLowerCase() 的规则转换（某些字符转小写后长度会变化）
+        return methodName.substring(start, start + 1).toLowerCase(Locale.ENGLISH) + methodName.substring(start + 1);
     }
 
     /**
@@ -0,0 +1,136 @@
+package org.pc.reflection.property;
+
+import org.pc.reflection.Reflector;
+import org.pc.reflection.exception.ReflectionException;
+import org.pc.reflection.invoker.TypedGetter;
+import org.pc.reflection.invoker.TypedSetter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *     预先绑定的一组属性，可以一次调用读取/写入所有选中的属性。属性的槽位即属性在创建时传入的属性名数组中的下标，
+ * values[offset + i] 对应槽位 i。
+ *     读写通过 TypedGetter/TypedSetter 完成，不需要逐个查找 Invoker，也不会为每个属性创建 Object[] 参数数组，
+ * 适合在循环中填充大量对象。只有读（或写）时才要求所有属性都有 getter（或 setter）。
+ */
+public class PropertySet {
+    private final Class<?> type;
+    private final String[] propertyNames;
+    private final Map<String, Integer> slots = new HashMap<>();
+    /**
+     * 没有 getter/setter 的属性对应的元素为 null
+     */
+    private final TypedGetter[] getters;
+    private final TypedSetter[] setters;
+    private final boolean readable;
+    private final boolean writable;
+
+    public PropertySet(Reflector reflector, String... propertyNames) {
+        this.type = reflector.getType();
+        this.propertyNames = propertyNames.clone();
+        getters = new TypedGetter[propertyNames.length];
+        setters = new TypedSetter[propertyNames.length];
+        boolean allReadable = true;
+        boolean allWritable = true;
+        for (int i = 0; i < propertyNames.length; i++) {
+            String name = propertyNames[i];
+            if (!reflector.hasGetter(name) && !reflector.hasSetter(name)) {
+                throw new ReflectionException("There is no property named '" + name + "' in '" + type + "'");
+            }
+            if (slots.put(name, i) != null) {
+                throw new ReflectionException("Duplicate property named '" + name + "' in property set of " + type);
+            }
+            if (reflector.hasGetter(name)) {
+                getters[i] = TypedGetter.forInvoker(reflector.getGetInvoker(name));
+            } else {
+                allReadable = false;
+            }
+            if (reflector.hasSetter(name)) {
+                setters[i] = TypedSetter.forInvoker(reflector.getSetInvoker(name));
+            } else {
+                allWritable = false;
+            }
+        }
+        readable = allReadable;
+        writable = allWritable;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public int size() {
+        return propertyNames.length;
+    }
+
+    public String[] getPropertyNames() {
+        return propertyNames.clone();
+    }
+
+    /**
+     * @return 属性对应的槽位，不在属性集中时返回 -1
+     */
+    public int getSlot(String propertyName) {
+        Integer slot = slots.get(propertyName);
+        return slot == null ? -1 : slot;
+    }
+
+    public boolean isReadable() {
+        return readable;
+    }
+
+    public boolean isWritable() {
+        return writable;
+    }
+
+    public void readAll(Object bean, Object[] values) {
+        readAll(bean, values, 0);
+    }
+
+    /**
+     * 读取所有属性，槽位 i 的值写入 values[offset + i]
+     */
+    public void readAll(Object bean, Object[] values, int offset) {
+        if (!readable) {
+            throw new ReflectionException("There is no getter for property named '" + missing(true) + "' in '" + type + "'");
+        }
+        checkBounds(values, offset);
+        for (int i = 0; i < getters.length; i++) {
+            values[offset + i] = getters[i].get(bean);
+        }
+    }
+
+    public void writeAll(Object bean, Object[] values) {
+        writeAll(bean, values, 0);
+    }
+
+    /**
+     * 将 values[offset + i] 写入槽位 i 对应的属性，基本类型的属性不能写入 null
+     */
+    public void writeAll(Object bean, Object[] values, int offset) {
+        if (!writable) {
+            throw new ReflectionException("There is no setter for property named '" + missing(false) + "' in '" + type + "'");
+        }
+        checkBounds(values, offset);
+        for (int i = 0; i < setters.length; i++) {
+            setters[i].set(bean, values[offset + i]);
+        }
+    }
+
+    private void checkBounds(Object[] values, int offset) {
+        if (offset < 0 || values.length - offset < propertyNames.length) {
+            throw new ReflectionException("Array of length " + values.length + " at offset " + offset
+                    + " cannot hold " + propertyNames.length + " properties of " + type);
+        }
+    }
+
+    private String missing(boolean getter) {
+        for (int i = 0; i < propertyNames.length; i++) {
+            if ((getter ? getters[i] : setters[i]) == null) {
+                return propertyNames[i];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,350 @@
+package org.pc.reflection.serialize;
+
+import org.pc.reflection.Reflector;
+import org.pc.reflection.exception.ReflectionException;
+import org.pc.reflection.factory.ConstructorInstantiator;
+import org.pc.reflection.factory.DefaultReflectorFactory;
+import org.pc.reflection.factory.ReflectorFactory;
+import org.pc.reflection.invoker.TypedGetter;
+import org.pc.reflection.invoker.TypedSetter;
+
+import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *     基于 Reflector 属性元信息的二进制编解码器，每个类编译一次。同时可读可写的属性按属性名排序后依次写入，
+ * 数据中不包含属性名和类名：基本类型中 int/long/short/char 使用（ZigZag）varint 编码，float/double 使用定长编码，
+ * 其他类型见 ValueCodecs。读写直接操作 ByteBuffer（堆内或堆外），多个对象可以连续写入同一个 ByteBuffer，
+ * 空间不足时抛出 BufferOverflowException，此时 buffer 的 position 会恢复到写入之前，不会留下写了一半的对象，
+ * 由调用方扩容后重试。
+ *     注意：数据中不包含类结构信息，写入和读取两端的类定义必须一致。对象图中不能有环（例如 a.next == a），
+ * 写入时检测到环会抛出 ReflectionException；没有环的共享引用会被写入多次，读取后成为不同的对象。
+ */
+public class BeanCodec<T> {
+    /**
+     * 当前线程正在写入的对象（按引用比较），用于检测对象图中的环
+     */
+    private static final ThreadLocal<Map<Object, Boolean>> WRITING =
+            ThreadLocal.withInitial(IdentityHashMap::new);
+
+    private final Class<T> type;
+    private final PropertyCodec[] properties;
+    /**
+     * 有属性可能引用其他 JavaBean 时才需要检测环，只有基本类型、字符串等属性的类不会成为环的一部分
+     */
+    private final boolean detectCycles;
+    private final Constructor<?> defaultConstructor;
+    /**
+     * 没有无参构造器时使用，以及每个属性对应的构造器槽位（-1 表示需要在创建后通过 setter 写入）
+     */
+    private final ConstructorInstantiator instantiator;
+    private final int[] constructorSlots;
+
+    public BeanCodec(Class<T> type, Reflector reflector) {
+        this(type, reflector, DefaultReflectorFactory.getDefault());
+    }
+
+    /**
+     * @param reflectorFactory 嵌套的 JavaBean 属性通过它获取 BeanCodec
+     */
+    public BeanCodec(Class<T> type, Reflector reflector, ReflectorFactory reflectorFactory) {
+        this.type = type;
+        List<String> names = new ArrayList<>();
+        for (String name : reflector.getGetablePropertyNames()) {
+            if (reflector.hasSetter(name)) {
+                names.add(name);
+            }
+        }
+        String[] propertyNames = names.toArray(new String[0]);
+        //属性的顺序决定了数据格式，按属性名排序以保证不同进程中的顺序一致
+        Arrays.sort(propertyNames);
+        properties = new PropertyCodec[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; i++) {
+            properties[i] = new PropertyCodec(propertyNames[i], reflector, reflectorFactory);
+        }
+        boolean referencesBeans = false;
+        for (PropertyCodec property : properties) {
+            referencesBeans |= property.codec != null && ValueCodecs.mayReferenceBeans(property.codec);
+        }
+        detectCycles = referencesBeans;
+        if (reflector.hasDefaultConstructor()) {
+            defaultConstructor = reflector.getDefaultConstructor();
+            instantiator = null;
+            constructorSlots = null;
+        } else {
+            defaultConstructor = null;
+            instantiator = reflector.getConstructorInstantiator();
+            constructorSlots = new int[propertyNames.length];
+            for (int i = 0; i < propertyNames.length; i++) {
+                constructorSlots[i] = instantiator.getSlot(propertyNames[i]);
+            }
+        }
+    }
+
+    /**
+     * 获取指定类型的 BeanCodec，使用 DefaultReflectorFactory#getDefault()
+     */
+    public static <T> BeanCodec<T> forClass(Class<T> type) {
+        return forClass(type, DefaultReflectorFactory.getDefault());
+    }
+
+    /**
+     * 获取指定类型的 BeanCodec，它随 Reflector 一起缓存在 reflectorFactory 中，每个 Reflector 只编译一次
+     */
+    public static <T> BeanCodec<T> forClass(Class<T> type, ReflectorFactory reflectorFactory) {
+        return reflectorFactory.findForClass(type).getPlan(BeanCodec.class,
+                reflector -> new BeanCodec<>(type, reflector, reflectorFactory));
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * @return 按写入顺序排列的属性名
+     */
+    public String[] getPropertyNames() {
+        String[] names = new String[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            names[i] = properties[i].name;
+        }
+        return names;
+    }
+
+    /**
+     * 从 buffer 的当前位置写入一个对象，失败（包括空间不足）时 position 恢复到写入之前
+     */
+    public void write(T bean, ByteBuffer buffer) {
+        int start = buffer.position();
+        try {
+            writeObject(bean, buffer);
+        } catch (RuntimeException e) {
+            buffer.position(start);
+            throw e;
+        }
+    }
+
+    void writeObject(Object bean, ByteBuffer buffer) {
+        if (bean == null) {
+            throw new ReflectionException("Cannot write null " + type.getName() + " at top level");
+        }
+        if (!detectCycles) {
+            for (PropertyCodec property : properties) {
+                property.write(bean, buffer);
+            }
+            return;
+        }
+        Map<Object, Boolean> writing = WRITING.get();
+        if (writing.put(bean, Boolean.TRUE) != null) {
+            throw new ReflectionException("Cycle detected in object graph: " + type.getName()
+                    + " instance is already being written, object graphs with cycles are not supported");
+        }
+        try {
+            for (PropertyCodec property : properties) {
+                property.write(bean, buffer);
+            }
+        } finally {
+            writing.remove(bean);
+        }
+    }
+
+    /**
+     * 依次写入多个对象，任意一个失败（包括空间不足）时 position 恢复到写入第一个对象之前
+     */
+    public void writeAll(Iterable<? extends T> beans, ByteBuffer buffer) {
+        int start = buffer.position();
+        try {
+            for (T bean : beans) {
+                writeObject(bean, buffer);
+            }
+        } catch (RuntimeException e) {
+            buffer.position(start);
+            throw e;
+        }
+    }
+
+    /**
+     * 从 buffer 的当前位置读取一个对象
+     */
+    @SuppressWarnings("unchecked")
+    public T read(ByteBuffer buffer) {
+        if (instantiator != null) {
+            return (T) readByConstructor(buffer);
+        }
+        Object bean;
+        try {
+            bean = defaultConstructor.newInstance();
+        } catch (Exception e) {
+            throw new ReflectionException("Error instantiating " + type + ". Cause: " + e, e);
+        }
+        for (PropertyCodec property : properties) {
+            property.read(bean, buffer);
+        }
+        return (T) bean;
+    }
+
+    /**
+     * 读取 buffer 中剩余的所有对象
+     */
+    public List<T> readAll(ByteBuffer buffer) {
+        List<T> beans = new ArrayList<>();
+        while (buffer.hasRemaining()) {
+            beans.add(read(buffer));
+        }
+        return beans;
+    }
+
+    private Object readByConstructor(ByteBuffer buffer) {
+        Object[] values = new Object[properties.length];
+        Object[] constructorArgs = new Object[instantiator.getSlotCount()];
+        for (int i = 0; i < properties.length; i++) {
+            values[i] = properties[i].readValue(buffer);
+            if (constructorSlots[i] >= 0) {
+                constructorArgs[constructorSlots[i]] = values[i];
+            }
+        }
+        Object bean = instantiator.newInstance(constructorArgs);
+        for (int i = 0; i < properties.length; i++) {
+            if (constructorSlots[i] < 0) {
+                properties[i].setter.set(bean, values[i]);
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * 单个属性的编解码，基本类型通过 TypedGetter/TypedSetter 读写，不会装箱
+     */
+    private static final class PropertyCodec {
+        private final String name;
+        /**
+         * 基本类型的 JVM 描述符（Z/B/C/S/I/J/F/D），引用类型为 L
+         */
+        private final char descriptor;
+        private final TypedGetter getter;
+        private final TypedSetter setter;
+        private final ValueCodec codec;
+
+        private PropertyCodec(String name, Reflector reflector, ReflectorFactory reflectorFactory) {
+            this.name = name;
+            getter = TypedGetter.forInvoker(reflector.getGetInvoker(name));
+            setter = TypedSetter.forInvoker(reflector.getSetInvoker(name));
+            descriptor = descriptorOf(getter.getType());
+            codec = descriptor == 'L' ? ValueCodecs.forType(reflector.getGenericGetterType(name), reflectorFactory) : null;
+        }
+
+        private static char descriptorOf(Class<?> type) {
+            if (type == boolean.class) {
+                return 'Z';
+            } else if (type == byte.class) {
+                return 'B';
+            } else if (type == char.class) {
+                return 'C';
+            } else if (type == short.class) {
+                return 'S';
+            } else if (type == int.class) {
+                return 'I';
+            } else if (type == long.class) {
+                return 'J';
+            } else if (type == float.class) {
+                return 'F';
+            } else if (type == double.class) {
+                return 'D';
+            }
+            return 'L';
+        }
+
+        private void write(Object bean, ByteBuffer buffer) {
+            switch (descriptor) {
+                case 'Z':
+                    buffer.put(getter.getBoolean(bean) ? (byte) 1 : (byte) 0);
+                    break;
+                case 'B':
+                    buffer.put(getter.getByte(bean));
+                    break;
+                case 'C':
+                    BinaryIO.writeVarInt(buffer, getter.getChar(bean));
+                    break;
+                case 'S':
+                    BinaryIO.writeZigZagInt(buffer, getter.getShort(bean));
+                    break;
+                case 'I':
+                    BinaryIO.writeZigZagInt(buffer, getter.getInt(bean));
+                    break;
+                case 'J':
+                    BinaryIO.writeZigZagLong(buffer, getter.getLong(bean));
+                    break;
+                case 'F':
+                    buffer.putFloat(getter.getFloat(bean));
+                    break;
+                case 'D':
+                    buffer.putDouble(getter.getDouble(bean));
+                    break;
+                default:
+                    codec.write(getter.get(bean), buffer);
+            }
+        }
+
+        private void read(Object bean, ByteBuffer buffer) {
+            switch (descriptor) {
+                case 'Z':
+                    setter.setBoolean(bean, buffer.get() != 0);
+                    break;
+                case 'B':
+                    setter.setByte(bean, buffer.get());
+                    break;
+                case 'C':
+                    setter.setChar(bean, (char) BinaryIO.readVarInt(buffer));
+                    break;
+                case 'S':
+                    setter.setShort(bean, (short) BinaryIO.readZigZagInt(buffer));
+                    break;
+                case 'I':
+                    setter.setInt(bean, BinaryIO.readZigZagInt(buffer));
+                    break;
+                case 'J':
+                    setter.setLong(bean, BinaryIO.readZigZagLong(buffer));
+                    break;
+                case 'F':
+                    setter.setFloat(bean, buffer.getFloat());
+                    break;
+                case 'D':
+                    setter.setDouble(bean, buffer.getDouble());
+                    break;
+                default:
+                    setter.set(bean, codec.read(buffer));
+            }
+        }
+
+        /**
+         * 读取装箱后的属性值，用于构造器注入
+         */
+        private Object readValue(ByteBuffer buffer) {
+            switch (descriptor) {
+                case 'Z':
+                    return buffer.get() != 0;
+                case 'B':
+                    return buffer.get();
+                case 'C':
+                    return (char) BinaryIO.readVarInt(buffer);
+                case 'S':
+                    return (short) BinaryIO.readZigZagInt(buffer);
+                case 'I':
+                    return BinaryIO.readZigZagInt(buffer);
+                case 'J':
+                    return BinaryIO.readZigZagLong(buffer);
+                case 'F':
+                    return buffer.getFloat();
+                case 'D':
+                    return buffer.getDouble();
+                default:
+                    return codec.read(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.pc.reflection.serialize;
+
+import org.pc.reflection.exception.ReflectionException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 变长整数（varint）、ZigZag 编码以及字符串的读写，直接操作 ByteBuffer，不产生中间的 byte[]
+ */
+final class BinaryIO {
+    private BinaryIO() {}
+
+    static void writeVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int readVarInt(ByteBuffer buffer) {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            result |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new ReflectionException("Malformed varint");
+    }
+
+    static void writeVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        long result = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new ReflectionException("Malformed varlong");
+    }
+
+    //ZigZag 编码：绝对值小的负数也只占很少的字节
+    static void writeZigZagInt(ByteBuffer buffer, int value) {
+        writeVarInt(buffer, (value << 1) ^ (value >> 31));
+    }
+
+    static int readZigZagInt(ByteBuffer buffer) {
+        int n = readVarInt(buffer);
+        return (n >>> 1) ^ -(n & 1);
+    }
+
+    static void writeZigZagLong(ByteBuffer buffer, long value) {
+        writeVarLong(buffer, (value << 1) ^ (value >> 63));
+    }
+
+    static long readZigZagLong(ByteBuffer buffer) {
+        long n = readVarLong(buffer);
+        return (n >>> 1) ^ -(n & 1);
+    }
+
+    /**
+     *     字符串编码：先写 (字节数 + 1) 的 varint，0 表示 null；再按字符逐个编码，与 DataOutput#writeUTF() 一样，
+     * '\u0000' 占两个字节，代理对中的每个字符各占三个字节。
+     */
+    static void writeString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            writeVarInt(buffer, 0);
+            return;
+        }
+        int length = value.length();
+        int utfLength = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                utfLength++;
+            } else if (c > 0x07FF) {
+                utfLength += 3;
+            } else {
+                utfLength += 2;
+            }
+        }
+        writeVarInt(buffer, utfLength + 1);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                buffer.put((byte) c);
+            } else if (c > 0x07FF) {
+                buffer.put((byte) (0xE0 | ((c >> 12) & 0x0F)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else {
+                buffer.put((byte) (0xC0 | ((c >> 6) & 0x1F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    static String readString(ByteBuffer buffer) {
+        int utfLength = readVarInt(buffer) - 1;
+        if (utfLength < 0) {
+            return null;
+        }
+        char[] chars = new char[utfLength];
+        int count = 0;
+        int end = buffer.position() + utfLength;
+        while (buffer.position() < end) {
+            int b = buffer.get() & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[count++] = (char) (((b & 0x1F) << 6) | (buffer.get() & 0x3F));
+            } else {
+                chars[count++] = (char) (((b & 0x0F) << 12) | ((buffer.get() & 0x3F) << 6) | (buffer.get() & 0x3F));
+            }
+        }
+        return new String(chars, 0, count);
+    }
+}
@@ -0,0 +1,12 @@
+package org.pc.reflection.serialize;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 某一种类型的值的编解码，包括 null 的处理
+ */
+interface ValueCodec {
+    void write(Object value, ByteBuffer buffer);
+
+    Object read(ByteBuffer buffer);
+}
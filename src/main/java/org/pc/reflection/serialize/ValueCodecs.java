@@ -0,0 +1,792 @@
+package org.pc.reflection.serialize;
+
+import org.pc.reflection.exception.ReflectionException;
+import org.pc.reflection.factory.DefaultObjectFctory;
+import org.pc.reflection.factory.ReflectorFactory;
+
+import java.lang.reflect.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.PriorityBlockingQueue;
+
+/**
+ *     根据声明类型选择 ValueCodec。可以为 null 的值先写一个标记字节（0 表示 null），字符串、数组、集合等
+ * 则把 null 编码在长度中（长度 + 1，0 表示 null）。集合和 Map 根据泛型参数确定元素的编解码方式，
+ * 无法确定时（Object、类型变量等）使用带类型标记的动态编码，只支持基本类型、字符串、集合和 Map。
+ *     比较器不会被序列化，反序列化时集合和 Map 都通过无参构造器创建，所以带比较器的 SortedSet、SortedMap、
+ * PriorityQueue 等在序列化时就会被拒绝，而不是读回一个按自然顺序排序（或排序时抛出 ClassCastException）的副本。
+ */
+final class ValueCodecs {
+    private static final DefaultObjectFctory OBJECT_FACTORY = new DefaultObjectFctory();
+
+    private ValueCodecs() {}
+
+    /**
+     * @param reflectorFactory 嵌套的 JavaBean 通过它获取 BeanCodec
+     */
+    static ValueCodec forType(Type type, ReflectorFactory reflectorFactory) {
+        if (type instanceof Class) {
+            return forClass((Class<?>) type, reflectorFactory);
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            Class<?> rawType = (Class<?>) parameterizedType.getRawType();
+            Type[] typeArgs = parameterizedType.getActualTypeArguments();
+            if (Collection.class.isAssignableFrom(rawType) && typeArgs.length == 1) {
+                return new CollectionCodec(rawType, forType(typeArgs[0], reflectorFactory));
+            } else if (Map.class.isAssignableFrom(rawType) && typeArgs.length == 2) {
+                return new MapCodec(rawType, forType(typeArgs[0], reflectorFactory),
+                        forType(typeArgs[1], reflectorFactory));
+            }
+            return forClass(rawType, reflectorFactory);
+        } else if (type instanceof GenericArrayType) {
+            Type componentType = ((GenericArrayType) type).getGenericComponentType();
+            return new ObjectArrayCodec(rawClass(componentType), forType(componentType, reflectorFactory));
+        } else if (type instanceof WildcardType) {
+            Type[] upperBounds = ((WildcardType) type).getUpperBounds();
+            return upperBounds.length > 0 ? forType(upperBounds[0], reflectorFactory) : DYNAMIC;
+        }
+        return DYNAMIC;
+    }
+
+    private static Class<?> rawClass(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        } else if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        } else if (type instanceof GenericArrayType) {
+            return Array.newInstance(rawClass(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        }
+        return Object.class;
+    }
+
+    private static ValueCodec forClass(Class<?> type, ReflectorFactory reflectorFactory) {
+        if (type == boolean.class || type == Boolean.class) {
+            return BOOLEAN;
+        } else if (type == byte.class || type == Byte.class) {
+            return BYTE;
+        } else if (type == short.class || type == Short.class) {
+            return SHORT;
+        } else if (type == char.class || type == Character.class) {
+            return CHAR;
+        } else if (type == int.class || type == Integer.class) {
+            return INT;
+        } else if (type == long.class || type == Long.class) {
+            return LONG;
+        } else if (type == float.class || type == Float.class) {
+            return FLOAT;
+        } else if (type == double.class || type == Double.class) {
+            return DOUBLE;
+        } else if (type == String.class) {
+            return STRING;
+        } else if (type.isEnum()) {
+            return new EnumCodec(type);
+        } else if (type == BigDecimal.class) {
+            return BIG_DECIMAL;
+        } else if (type == BigInteger.class) {
+            return BIG_INTEGER;
+        } else if (type == Date.class) {
+            return DATE;
+        } else if (type == LocalDate.class) {
+            return LOCAL_DATE;
+        } else if (type == LocalDateTime.class) {
+            return LOCAL_DATE_TIME;
+        } else if (type == Instant.class) {
+            return INSTANT;
+        } else if (type.isArray()) {
+            Class<?> componentType = type.getComponentType();
+            return componentType.isPrimitive() ? new PrimitiveArrayCodec(componentType)
+                    : new ObjectArrayCodec(componentType, forClass(componentType, reflectorFactory));
+        } else if (Collection.class.isAssignableFrom(type)) {
+            return new CollectionCodec(type, DYNAMIC);
+        } else if (Map.class.isAssignableFrom(type)) {
+            return new MapCodec(type, DYNAMIC, DYNAMIC);
+        } else if (type == Object.class || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return DYNAMIC;
+        }
+        return new BeanValueCodec(type, reflectorFactory);
+    }
+
+    /**
+     *     反序列化时创建集合或 Map 的无参构造器，在编译时查找一次。接口按 DefaultObjectFctory#resolveInterface()
+     * 转换成默认实现；转换后仍无法创建的类型（如 BlockingQueue、EnumSet）在编译时就拒绝。
+     */
+    private static Constructor<?> containerConstructor(Class<?> declaredType) {
+        Class<?> type = OBJECT_FACTORY.resolveInterface(declaredType);
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            throw new ReflectionException("Cannot deserialize values of " + declaredType
+                    + ", declare a concrete collection or map type");
+        }
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            if (!Modifier.isPublic(type.getModifiers()) || !Modifier.isPublic(constructor.getModifiers())) {
+                constructor.setAccessible(true);
+            }
+            return constructor;
+        } catch (NoSuchMethodException | RuntimeException e) {
+            throw new ReflectionException("Cannot deserialize values of " + declaredType
+                    + ", there is no accessible default constructor for " + type + ". Cause: " + e, e);
+        }
+    }
+
+    /**
+     * 比较器无法序列化，带比较器的集合和 Map 直接拒绝
+     */
+    private static void checkNoComparator(Object container) {
+        Comparator<?> comparator = null;
+        if (container instanceof SortedSet) {
+            comparator = ((SortedSet<?>) container).comparator();
+        } else if (container instanceof SortedMap) {
+            comparator = ((SortedMap<?, ?>) container).comparator();
+        } else if (container instanceof PriorityQueue) {
+            comparator = ((PriorityQueue<?>) container).comparator();
+        } else if (container instanceof PriorityBlockingQueue) {
+            comparator = ((PriorityBlockingQueue<?>) container).comparator();
+        }
+        if (comparator != null) {
+            throw new ReflectionException("Cannot serialize " + container.getClass().getName() + " with comparator "
+                    + comparator.getClass().getName() + ", comparators are not serialized");
+        }
+    }
+
+    private static Object newContainer(Constructor<?> constructor) {
+        try {
+            return constructor.newInstance();
+        } catch (Exception e) {
+            throw new ReflectionException("Error instantiating " + constructor.getDeclaringClass() + ". Cause: " + e, e);
+        }
+    }
+
+    /**
+     * 编解码器写入的值是否可能（直接或通过集合、Map、数组）引用其他 JavaBean
+     */
+    static boolean mayReferenceBeans(ValueCodec codec) {
+        return codec instanceof BeanValueCodec || codec instanceof CollectionCodec || codec instanceof MapCodec
+                || codec instanceof ObjectArrayCodec;
+    }
+
+    private static boolean writeNullFlag(Object value, ByteBuffer buffer) {
+        buffer.put(value == null ? (byte) 0 : (byte) 1);
+        return value != null;
+    }
+
+    private static boolean readNullFlag(ByteBuffer buffer) {
+        return buffer.get() != 0;
+    }
+
+    static final ValueCodec BOOLEAN = new ValueCodec() {
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            buffer.put(value == null ? (byte) 0 : ((Boolean) value ? (byte) 2 : (byte) 1));
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            byte b = buffer.get();
+            return b == 0 ? null : b == 2;
+        }
+    };
+
+    static final ValueCodec BYTE = new ValueCodec() {
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            if (writeNullFlag(value, buffer)) {
+                buffer.put((Byte) value);
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            return readNullFlag(buffer) ? buffer.get() : null;
+        }
+    };
+
+    static final ValueCodec SHORT = new ValueCodec() {
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            if (writeNullFlag(value, buffer)) {
+                BinaryIO.writeZigZagInt(buffer, (Short) value);
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            return readNullFlag(buffer) ? (short) BinaryIO.readZigZagInt(buffer) : null;
+        }
+    };
+
+    static final ValueCodec CHAR = new ValueCodec() {
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            if (writeNullFlag(value, buffer)) {
+                BinaryIO.writeVarInt(buffer, (Character) value);
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            return readNullFlag(buffer) ? (char) BinaryIO.readVarInt(buffer) : null;
+        }
+    };
+
+    static final ValueCodec INT = new ValueCodec() {
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            if (writeNullFlag(value, buffer)) {
+                BinaryIO.writeZigZagInt(buffer, (Integer) value);
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            return readNullFlag(buffer) ? BinaryIO.readZigZagInt(buffer) : null;
+        }
+    };
+
+    static final ValueCodec LONG = new ValueCodec() {
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            if (writeNullFlag(value, buffer)) {
+                BinaryIO.writeZigZagLong(buffer, (Long) value);
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            return readNullFlag(buffer) ? BinaryIO.readZigZagLong(buffer) : null;
+        }
+    };
+
+    static final ValueCodec FLOAT = new ValueCodec() {
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            if (writeNullFlag(value, buffer)) {
+                buffer.putFloat((Float) value);
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            return readNullFlag(buffer) ? buffer.getFloat() : null;
+        }
+    };
+
+    static final ValueCodec DOUBLE = new ValueCodec() {
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            if (writeNullFlag(value, buffer)) {
+                buffer.putDouble((Double) value);
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            return readNullFlag(buffer) ? buffer.getDouble() : null;
+        }
+    };
+
+    static final ValueCodec STRING = new ValueCodec() {
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            BinaryIO.writeString(buffer, (String) value);
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            return BinaryIO.readString(buffer);
+        }
+    };
+
+    static final ValueCodec BIG_DECIMAL = new ValueCodec() {
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            BinaryIO.writeString(buffer, value == null ? null : value.toString());
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            String value = BinaryIO.readString(buffer);
+            return value == null ? null : new BigDecimal(value);
+        }
+    };
+
+    static final ValueCodec BIG_INTEGER = new ValueCodec() {
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            BinaryIO.writeString(buffer, value == null ? null : value.toString());
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            String value = BinaryIO.readString(buffer);
+            return value == null ? null : new BigInteger(value);
+        }
+    };
+
+    static final ValueCodec DATE = new ValueCodec() {
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            if (writeNullFlag(value, buffer)) {
+                BinaryIO.writeZigZagLong(buffer, ((Date) value).getTime());
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            return readNullFlag(buffer) ? new Date(BinaryIO.readZigZagLong(buffer)) : null;
+        }
+    };
+
+    static final ValueCodec LOCAL_DATE = new ValueCodec() {
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            if (writeNullFlag(value, buffer)) {
+                BinaryIO.writeZigZagLong(buffer, ((LocalDate) value).toEpochDay());
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            return readNullFlag(buffer) ? LocalDate.ofEpochDay(BinaryIO.readZigZagLong(buffer)) : null;
+        }
+    };
+
+    static final ValueCodec LOCAL_DATE_TIME = new ValueCodec() {
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            if (writeNullFlag(value, buffer)) {
+                LocalDateTime dateTime = (LocalDateTime) value;
+                BinaryIO.writeZigZagLong(buffer, dateTime.toEpochSecond(ZoneOffset.UTC));
+                BinaryIO.writeVarInt(buffer, dateTime.getNano());
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            if (!readNullFlag(buffer)) {
+                return null;
+            }
+            long epochSecond = BinaryIO.readZigZagLong(buffer);
+            return LocalDateTime.ofEpochSecond(epochSecond, BinaryIO.readVarInt(buffer), ZoneOffset.UTC);
+        }
+    };
+
+    static final ValueCodec INSTANT = new ValueCodec() {
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            if (writeNullFlag(value, buffer)) {
+                Instant instant = (Instant) value;
+                BinaryIO.writeZigZagLong(buffer, instant.getEpochSecond());
+                BinaryIO.writeVarInt(buffer, instant.getNano());
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            if (!readNullFlag(buffer)) {
+                return null;
+            }
+            long epochSecond = BinaryIO.readZigZagLong(buffer);
+            return Instant.ofEpochSecond(epochSecond, BinaryIO.readVarInt(buffer));
+        }
+    };
+
+    private static final class EnumCodec implements ValueCodec {
+        private final Object[] constants;
+
+        private EnumCodec(Class<?> enumType) {
+            constants = enumType.getEnumConstants();
+        }
+
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            BinaryIO.writeVarInt(buffer, value == null ? 0 : ((Enum<?>) value).ordinal() + 1);
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            int ordinal = BinaryIO.readVarInt(buffer) - 1;
+            return ordinal < 0 ? null : constants[ordinal];
+        }
+    }
+
+    private static final class PrimitiveArrayCodec implements ValueCodec {
+        private final Class<?> componentType;
+
+        private PrimitiveArrayCodec(Class<?> componentType) {
+            this.componentType = componentType;
+        }
+
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            if (value == null) {
+                BinaryIO.writeVarInt(buffer, 0);
+                return;
+            }
+            int length = Array.getLength(value);
+            BinaryIO.writeVarInt(buffer, length + 1);
+            if (componentType == byte.class) {
+                buffer.put((byte[]) value);
+            } else if (componentType == int.class) {
+                for (int v : (int[]) value) {
+                    BinaryIO.writeZigZagInt(buffer, v);
+                }
+            } else if (componentType == long.class) {
+                for (long v : (long[]) value) {
+                    BinaryIO.writeZigZagLong(buffer, v);
+                }
+            } else if (componentType == double.class) {
+                for (double v : (double[]) value) {
+                    buffer.putDouble(v);
+                }
+            } else if (componentType == float.class) {
+                for (float v : (float[]) value) {
+                    buffer.putFloat(v);
+                }
+            } else if (componentType == boolean.class) {
+                for (boolean v : (boolean[]) value) {
+                    buffer.put(v ? (byte) 1 : (byte) 0);
+                }
+            } else if (componentType == short.class) {
+                for (short v : (short[]) value) {
+                    BinaryIO.writeZigZagInt(buffer, v);
+                }
+            } else {
+                for (char v : (char[]) value) {
+                    BinaryIO.writeVarInt(buffer, v);
+                }
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            int length = BinaryIO.readVarInt(buffer) - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (componentType == byte.class) {
+                byte[] array = new byte[length];
+                buffer.get(array);
+                return array;
+            } else if (componentType == int.class) {
+                int[] array = new int[length];
+                for (int i = 0; i < length; i++) {
+                    array[i] = BinaryIO.readZigZagInt(buffer);
+                }
+                return array;
+            } else if (componentType == long.class) {
+                long[] array = new long[length];
+                for (int i = 0; i < length; i++) {
+                    array[i] = BinaryIO.readZigZagLong(buffer);
+                }
+                return array;
+            } else if (componentType == double.class) {
+                double[] array = new double[length];
+                for (int i = 0; i < length; i++) {
+                    array[i] = buffer.getDouble();
+                }
+                return array;
+            } else if (componentType == float.class) {
+                float[] array = new float[length];
+                for (int i = 0; i < length; i++) {
+                    array[i] = buffer.getFloat();
+                }
+                return array;
+            } else if (componentType == boolean.class) {
+                boolean[] array = new boolean[length];
+                for (int i = 0; i < length; i++) {
+                    array[i] = buffer.get() != 0;
+                }
+                return array;
+            } else if (componentType == short.class) {
+                short[] array = new short[length];
+                for (int i = 0; i < length; i++) {
+                    array[i] = (short) BinaryIO.readZigZagInt(buffer);
+                }
+                return array;
+            }
+            char[] array = new char[length];
+            for (int i = 0; i < length; i++) {
+                array[i] = (char) BinaryIO.readVarInt(buffer);
+            }
+            return array;
+        }
+    }
+
+    private static final class ObjectArrayCodec implements ValueCodec {
+        private final Class<?> componentType;
+        private final ValueCodec componentCodec;
+
+        private ObjectArrayCodec(Class<?> componentType, ValueCodec componentCodec) {
+            this.componentType = componentType;
+            this.componentCodec = componentCodec;
+        }
+
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            if (value == null) {
+                BinaryIO.writeVarInt(buffer, 0);
+                return;
+            }
+            Object[] array = (Object[]) value;
+            BinaryIO.writeVarInt(buffer, array.length + 1);
+            for (Object element : array) {
+                componentCodec.write(element, buffer);
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            int length = BinaryIO.readVarInt(buffer) - 1;
+            if (length < 0) {
+                return null;
+            }
+            Object[] array = (Object[]) Array.newInstance(componentType, length);
+            for (int i = 0; i < length; i++) {
+                array[i] = componentCodec.read(buffer);
+            }
+            return array;
+        }
+    }
+
+    private static final class CollectionCodec implements ValueCodec {
+        private final Constructor<?> constructor;
+        private final ValueCodec elementCodec;
+
+        private CollectionCodec(Class<?> collectionType, ValueCodec elementCodec) {
+            this.constructor = containerConstructor(collectionType);
+            this.elementCodec = elementCodec;
+        }
+
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            if (value == null) {
+                BinaryIO.writeVarInt(buffer, 0);
+                return;
+            }
+            checkNoComparator(value);
+            Collection<?> collection = (Collection<?>) value;
+            BinaryIO.writeVarInt(buffer, collection.size() + 1);
+            for (Object element : collection) {
+                elementCodec.write(element, buffer);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object read(ByteBuffer buffer) {
+            int size = BinaryIO.readVarInt(buffer) - 1;
+            if (size < 0) {
+                return null;
+            }
+            Collection<Object> collection = (Collection<Object>) newContainer(constructor);
+            for (int i = 0; i < size; i++) {
+                collection.add(elementCodec.read(buffer));
+            }
+            return collection;
+        }
+    }
+
+    private static final class MapCodec implements ValueCodec {
+        private final Constructor<?> constructor;
+        private final ValueCodec keyCodec;
+        private final ValueCodec valueCodec;
+
+        private MapCodec(Class<?> mapType, ValueCodec keyCodec, ValueCodec valueCodec) {
+            this.constructor = containerConstructor(mapType);
+            this.keyCodec = keyCodec;
+            this.valueCodec = valueCodec;
+        }
+
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            if (value == null) {
+                BinaryIO.writeVarInt(buffer, 0);
+                return;
+            }
+            checkNoComparator(value);
+            Map<?, ?> map = (Map<?, ?>) value;
+            BinaryIO.writeVarInt(buffer, map.size() + 1);
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                keyCodec.write(entry.getKey(), buffer);
+                valueCodec.write(entry.getValue(), buffer);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object read(ByteBuffer buffer) {
+            int size = BinaryIO.readVarInt(buffer) - 1;
+            if (size < 0) {
+                return null;
+            }
+            Map<Object, Object> map = (Map<Object, Object>) newContainer(constructor);
+            for (int i = 0; i < size; i++) {
+                Object key = keyCodec.read(buffer);
+                map.put(key, valueCodec.read(buffer));
+            }
+            return map;
+        }
+    }
+
+    /**
+     * 嵌套的 JavaBean，第一次使用时才获取 BeanCodec，以支持自引用的类型
+     */
+    private static final class BeanValueCodec implements ValueCodec {
+        private final Class<?> type;
+        private final ReflectorFactory reflectorFactory;
+        private BeanCodec<?> codec;
+
+        private BeanValueCodec(Class<?> type, ReflectorFactory reflectorFactory) {
+            this.type = type;
+            this.reflectorFactory = reflectorFactory;
+        }
+
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            if (writeNullFlag(value, buffer)) {
+                if (value.getClass() != type) {
+                    throw new ReflectionException("Cannot serialize " + value.getClass() + " in a property declared as "
+                            + type + ", subclasses are not supported");
+                }
+                codec().writeObject(value, buffer);
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            return readNullFlag(buffer) ? codec().read(buffer) : null;
+        }
+
+        private BeanCodec<?> codec() {
+            BeanCodec<?> c = codec;
+            if (c == null) {
+                codec = c = BeanCodec.forClass(type, reflectorFactory);
+            }
+            return c;
+        }
+    }
+
+    /**
+     * 无法从声明类型得知具体类型时使用，先写一个类型标记字节
+     */
+    static final ValueCodec DYNAMIC = new ValueCodec() {
+        private static final byte NULL = 0;
+        private static final byte BOOLEAN_TAG = 1;
+        private static final byte BYTE_TAG = 2;
+        private static final byte SHORT_TAG = 3;
+        private static final byte CHAR_TAG = 4;
+        private static final byte INT_TAG = 5;
+        private static final byte LONG_TAG = 6;
+        private static final byte FLOAT_TAG = 7;
+        private static final byte DOUBLE_TAG = 8;
+        private static final byte STRING_TAG = 9;
+        private static final byte LIST_TAG = 10;
+        private static final byte SET_TAG = 11;
+        private static final byte MAP_TAG = 12;
+
+        @Override
+        public void write(Object value, ByteBuffer buffer) {
+            if (value == null) {
+                buffer.put(NULL);
+            } else if (value instanceof String) {
+                buffer.put(STRING_TAG);
+                BinaryIO.writeString(buffer, (String) value);
+            } else if (value instanceof Integer) {
+                buffer.put(INT_TAG);
+                BinaryIO.writeZigZagInt(buffer, (Integer) value);
+            } else if (value instanceof Long) {
+                buffer.put(LONG_TAG);
+                BinaryIO.writeZigZagLong(buffer, (Long) value);
+            } else if (value instanceof Double) {
+                buffer.put(DOUBLE_TAG);
+                buffer.putDouble((Double) value);
+            } else if (value instanceof Boolean) {
+                buffer.put(BOOLEAN_TAG);
+                buffer.put((Boolean) value ? (byte) 1 : (byte) 0);
+            } else if (value instanceof Float) {
+                buffer.put(FLOAT_TAG);
+                buffer.putFloat((Float) value);
+            } else if (value instanceof Short) {
+                buffer.put(SHORT_TAG);
+                BinaryIO.writeZigZagInt(buffer, (Short) value);
+            } else if (value instanceof Byte) {
+                buffer.put(BYTE_TAG);
+                buffer.put((Byte) value);
+            } else if (value instanceof Character) {
+                buffer.put(CHAR_TAG);
+                BinaryIO.writeVarInt(buffer, (Character) value);
+            } else if (value instanceof Collection) {
+                Collection<?> collection = (Collection<?>) value;
+                buffer.put(value instanceof Set ? SET_TAG : LIST_TAG);
+                BinaryIO.writeVarInt(buffer, collection.size());
+                for (Object element : collection) {
+                    write(element, buffer);
+                }
+            } else if (value instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) value;
+                buffer.put(MAP_TAG);
+                BinaryIO.writeVarInt(buffer, map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    write(entry.getKey(), buffer);
+                    write(entry.getValue(), buffer);
+                }
+            } else {
+                throw new ReflectionException("Cannot serialize value of " + value.getClass()
+                        + " in an untyped position, declare a concrete property or element type");
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            byte tag = buffer.get();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case BOOLEAN_TAG:
+                    return buffer.get() != 0;
+                case BYTE_TAG:
+                    return buffer.get();
+                case SHORT_TAG:
+                    return (short) BinaryIO.readZigZagInt(buffer);
+                case CHAR_TAG:
+                    return (char) BinaryIO.readVarInt(buffer);
+                case INT_TAG:
+                    return BinaryIO.readZigZagInt(buffer);
+                case LONG_TAG:
+                    return BinaryIO.readZigZagLong(buffer);
+                case FLOAT_TAG:
+                    return buffer.getFloat();
+                case DOUBLE_TAG:
+                    return buffer.getDouble();
+                case STRING_TAG:
+                    return BinaryIO.readString(buffer);
+                case LIST_TAG:
+                case SET_TAG: {
+                    int size = BinaryIO.readVarInt(buffer);
+                    Collection<Object> collection = tag == SET_TAG ? new LinkedHashSet<>() : new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        collection.add(read(buffer));
+                    }
+                    return collection;
+                }
+                case MAP_TAG: {
+                    int size = BinaryIO.readVarInt(buffer);
+                    Map<Object, Object> map = new LinkedHashMap<>();
+                    for (int i = 0; i < size; i++) {
+                        Object key = read(buffer);
+                        map.put(key, read(buffer));
+                    }
+                    return map;
+                }
+                default:
+                    throw new ReflectionException("Unknown value tag " + tag);
+            }
+        }
+    };
+}
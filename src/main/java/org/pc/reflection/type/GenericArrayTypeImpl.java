@@ -2,6 +2,7 @@ package org.pc.reflection.type;
 
 import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.Type;
+import java.util.Objects;
 
 public class GenericArrayTypeImpl implements GenericArrayType {
     private Type componentType;
@@ -14,4 +15,22 @@ public class GenericArrayTypeImpl implements GenericArrayType {
     public Type getGenericComponentType() {
         return componentType;
     }
+
+    @Override
+    public String getTypeName() {
+        return componentType.getTypeName() + "[]";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof GenericArrayType && Objects.equals(componentType, ((GenericArrayType) o).getGenericComponentType());
+    }
+
+    /**
+     * 与 JDK 中 GenericArrayType 的实现保持一致
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(componentType);
+    }
 }
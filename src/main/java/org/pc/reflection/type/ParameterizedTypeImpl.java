@@ -3,6 +3,7 @@ package org.pc.reflection.type;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Arrays;
+import java.util.Objects;
 
 public class ParameterizedTypeImpl implements ParameterizedType {
     private Class<?> rawType;
@@ -30,6 +31,39 @@ public class ParameterizedTypeImpl implements ParameterizedType {
         return ownerType;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ParameterizedType)) {
+            return false;
+        }
+        ParameterizedType that = (ParameterizedType) o;
+        return rawType.equals(that.getRawType()) && Objects.equals(ownerType, that.getOwnerType())
+                && Arrays.equals(actualTypeArguments, that.getActualTypeArguments());
+    }
+
+    /**
+     * 与 JDK 中 ParameterizedType 的实现保持一致
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(actualTypeArguments) ^ Objects.hashCode(ownerType) ^ Objects.hashCode(rawType);
+    }
+
+    /**
+     * 例如 Page&lt;Order&gt;，用于异常信息
+     */
+    @Override
+    public String getTypeName() {
+        StringBuilder name = new StringBuilder(rawType.getTypeName()).append('<');
+        for (int i = 0; i < actualTypeArguments.length; i++) {
+            name.append(i == 0 ? "" : ", ").append(actualTypeArguments[i].getTypeName());
+        }
+        return name.append('>').toString();
+    }
+
     @Override
     public String toString() {
         return "ParameterizedTypeImpl [rawType=" + rawType + ", ownerType=" + ownerType + ", actualTypeArguments=" + Arrays.toString(actualTypeArguments) + "]";
@@ -2,6 +2,7 @@ package org.pc.reflection.type;
 
 import java.lang.reflect.Type;
 import java.lang.reflect.WildcardType;
+import java.util.Arrays;
 
 public class WildcardTypeImpl implements WildcardType {
     private Type[] lowerBounds;
@@ -21,4 +22,21 @@ public class WildcardTypeImpl implements WildcardType {
     public Type[] getLowerBounds() {
         return lowerBounds;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof WildcardType)) {
+            return false;
+        }
+        WildcardType that = (WildcardType) o;
+        return Arrays.equals(lowerBounds, that.getLowerBounds()) && Arrays.equals(upperBounds, that.getUpperBounds());
+    }
+
+    /**
+     * 与 JDK 中 WildcardType 的实现保持一致
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(lowerBounds) ^ Arrays.hashCode(upperBounds);
+    }
 }
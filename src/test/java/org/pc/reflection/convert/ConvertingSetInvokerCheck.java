@@ -0,0 +1,68 @@
+package org.pc.reflection.convert;
+
+import org.pc.reflection.Reflector;
+import org.pc.reflection.exception.ReflectionException;
+import org.pc.reflection.invoker.Invoker;
+
+/**
+ *     ConverterRegistry#bindSetter() 在源类型不确定（传入 null）时的行为校验：按每次传入的值查找转换器，
+ * 目标类型是 Reflector 按子类解析后的 setter 类型，例如 Entity extends Base&lt;Long&gt; 中 setId(T) 的目标类型是 Long。
+ *     校验失败时以非 0 状态退出。通过 mvn -P integration verify 运行，也可以直接运行 main()。
+ */
+public class ConvertingSetInvokerCheck {
+    private static int failures;
+
+    public static void main(String[] args) throws Exception {
+        Reflector reflector = new Reflector(Entity.class);
+        Invoker setter = new ConverterRegistry().bindSetter(reflector, "id", null);
+        Entity entity = new Entity();
+
+        setter.invoke(entity, new Object[]{"42"});
+        check(Long.valueOf(42).equals(entity.id), "String '42' was set as " + describe(entity.id));
+        setter.invoke(entity, new Object[]{7});
+        check(Long.valueOf(7).equals(entity.id), "Integer 7 was set as " + describe(entity.id));
+        setter.invoke(entity, new Object[]{9L});
+        check(Long.valueOf(9).equals(entity.id), "Long 9 was set as " + describe(entity.id));
+        setter.invoke(entity, new Object[]{null});
+        check(entity.id == null, "null was set as " + describe(entity.id));
+        try {
+            setter.invoke(entity, new Object[]{new Object()});
+            check(false, "value without converter was accepted");
+        } catch (ReflectionException expected) {
+            check(expected.getMessage().contains(Long.class.getName()),
+                    "error does not name the resolved target type: " + expected.getMessage());
+        }
+
+        if (failures > 0) {
+            System.out.println("FAILED: " + failures + " checks");
+            System.exit(1);
+        }
+        System.out.println("ConvertingSetInvoker checks passed");
+    }
+
+    private static String describe(Object value) {
+        return value == null ? "null" : value + " (" + value.getClass().getName() + ")";
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            failures++;
+            System.out.println("FAILED: " + message);
+        }
+    }
+
+    public static class Base<T> {
+        T id;
+
+        public T getId() {
+            return id;
+        }
+
+        public void setId(T id) {
+            this.id = id;
+        }
+    }
+
+    public static class Entity extends Base<Long> {
+    }
+}
@@ -0,0 +1,116 @@
+package org.pc.reflection.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ *     LongUniqueIndex 开放寻址表的行为校验：从很小的容量开始逐个加入，触发多次 rehash；再按随机顺序删除，
+ * 每删除一个都检查剩下的键全部能查到、删除的键查不到，覆盖删除后探测序列上元素前移（包括越过数组末尾回绕）的情况。
+ *     校验失败时以非 0 状态退出。通过 mvn -P integration verify 运行，也可以直接运行 main()。
+ */
+public class LongUniqueIndexCheck {
+    private static int failures;
+
+    public static void main(String[] args) {
+        Random random = new Random(20240601L);
+        //稀疏的键和连续的键各一组，连续的键在小容量的表里更容易聚成一段
+        checkAddAndRemove(random, randomKeys(random, 2000));
+        checkAddAndRemove(random, sequentialKeys(-500, 1500));
+        checkRemoveOtherBean();
+        if (failures > 0) {
+            System.out.println("FAILED: " + failures + " checks");
+            System.exit(1);
+        }
+        System.out.println("LongUniqueIndex checks passed");
+    }
+
+    private static void checkAddAndRemove(Random random, List<Long> keys) {
+        LongUniqueIndex<Row> index = LongUniqueIndex.build(Row.class, Collections.<Row>emptyList(), "id");
+        List<Row> rows = new ArrayList<>();
+        for (long key : keys) {
+            Row row = new Row(key);
+            index.add(row);
+            rows.add(row);
+        }
+        check(index.size() == rows.size(), "size after rehash is " + index.size() + ", expected " + rows.size());
+        for (Row row : rows) {
+            check(index.get(row.getId()) == row, "key " + row.getId() + " not found after rehash");
+        }
+
+        Collections.shuffle(rows, random);
+        for (int i = 0; i < rows.size(); i++) {
+            Row removed = rows.get(i);
+            check(index.remove(removed), "key " + removed.getId() + " could not be removed");
+            check(!index.containsKey(removed.getId()), "key " + removed.getId() + " still found after remove");
+            check(!index.remove(removed), "key " + removed.getId() + " removed twice");
+            //每删除一段再全量检查一次，否则总耗时是平方级的
+            if (i % 50 == 0 || i == rows.size() - 1) {
+                for (int j = i + 1; j < rows.size(); j++) {
+                    check(index.get(rows.get(j).getId()) == rows.get(j),
+                            "key " + rows.get(j).getId() + " lost after removing " + removed.getId());
+                }
+            }
+        }
+        check(index.size() == 0, "size after removing all is " + index.size());
+    }
+
+    private static void checkRemoveOtherBean() {
+        Row row = new Row(7);
+        LongUniqueIndex<Row> index = LongUniqueIndex.build(Row.class, Collections.singletonList(row), "id");
+        check(!index.remove(new Row(7)), "removed a different bean with the same key");
+        check(index.get(7) == row, "bean lost after removing a different bean with the same key");
+        try {
+            index.add(new Row(7));
+            check(false, "duplicate key accepted");
+        } catch (RuntimeException expected) {
+            check(index.size() == 1, "size changed after duplicate key");
+        }
+    }
+
+    private static List<Long> randomKeys(Random random, int count) {
+        List<Long> keys = new ArrayList<>();
+        while (keys.size() < count) {
+            long key = random.nextLong();
+            if (!keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    private static List<Long> sequentialKeys(long from, long to) {
+        List<Long> keys = new ArrayList<>();
+        for (long key = from; key < to; key++) {
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            failures++;
+            System.out.println("FAILED: " + message);
+        }
+    }
+
+    public static class Row {
+        private long id;
+
+        public Row() {
+        }
+
+        Row(long id) {
+            this.id = id;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+    }
+}
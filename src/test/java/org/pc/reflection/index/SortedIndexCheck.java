@@ -0,0 +1,97 @@
+package org.pc.reflection.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ *     SortedIndex 复合键的范围查询校验：边界只给出前几个属性（前缀）时不会越界，也不会把前缀当成与所有以它开头的键相等，
+ * 前缀小于所有以它开头的键。
+ *     校验失败时以非 0 状态退出。通过 mvn -P integration verify 运行，也可以直接运行 main()。
+ */
+public class SortedIndexCheck {
+    private static int failures;
+
+    public static void main(String[] args) {
+        List<Row> rows = new ArrayList<>();
+        for (int year = 2023; year <= 2025; year++) {
+            for (int month = 1; month <= 12; month++) {
+                rows.add(new Row(year, month));
+            }
+        }
+        SortedIndex<Row> index = SortedIndex.build(Row.class, rows, "year", "month");
+
+        List<Row> year2024 = index.range(Arrays.asList(2024), true, Arrays.asList(2025), false);
+        check(year2024.size() == 12, "prefix range [2024, 2025) returned " + year2024.size() + " rows");
+        check(year2024.get(0).getMonth() == 1 && year2024.get(11).getMonth() == 12 && allInYear(year2024, 2024),
+                "prefix range [2024, 2025) returned " + year2024);
+
+        List<Row> fromPrefix = index.range(Arrays.asList(2025), true, null, false);
+        check(fromPrefix.size() == 12 && allInYear(fromPrefix, 2025),
+                "prefix lower bound [2025] returned " + fromPrefix.size() + " rows");
+        List<Row> toPrefix = index.range(null, false, Arrays.asList(2024), true);
+        check(toPrefix.size() == 12 && allInYear(toPrefix, 2023),
+                "prefix upper bound [2024] returned " + toPrefix.size() + " rows");
+
+        List<Row> fullKeys = index.range(Arrays.asList(2024, 3), true, Arrays.asList(2024, 5), true);
+        check(fullKeys.size() == 3, "full key range returned " + fullKeys.size() + " rows");
+        check(index.get(Arrays.asList(2024, 3)).size() == 1, "full key lookup failed");
+        check(index.get(Arrays.asList(2024)).isEmpty(), "prefix matched a full key on lookup");
+
+        if (failures > 0) {
+            System.out.println("FAILED: " + failures + " checks");
+            System.exit(1);
+        }
+        System.out.println("SortedIndex checks passed");
+    }
+
+    private static boolean allInYear(List<Row> rows, int year) {
+        for (Row row : rows) {
+            if (row.getYear() != year) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            failures++;
+            System.out.println("FAILED: " + message);
+        }
+    }
+
+    public static class Row {
+        private int year;
+        private int month;
+
+        public Row() {
+        }
+
+        Row(int year, int month) {
+            this.year = year;
+            this.month = month;
+        }
+
+        public int getYear() {
+            return year;
+        }
+
+        public void setYear(int year) {
+            this.year = year;
+        }
+
+        public int getMonth() {
+            return month;
+        }
+
+        public void setMonth(int month) {
+            this.month = month;
+        }
+
+        @Override
+        public String toString() {
+            return year + "-" + month;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.pc.reflection.invoker;
+
+import org.pc.reflection.Reflector;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Objects;
+
+/**
+ *     AdaptiveInvoker 升级为 MethodHandleInvoker 前后的行为校验：同样的调用（正常调用、目标方法抛出异常、参数类型不匹配、
+ * 参数为 null、target 为 null 等），升级后返回的值、抛出的异常类型以及 InvocationTargetException 的 cause 必须与
+ * 升级前的 MethodInvoker、GetFieldInvoker、SetFieldInvoker 一致。
+ *     校验失败时以非 0 状态退出。通过 mvn -P integration verify 运行，也可以直接运行 main()。
+ */
+public class MethodHandleInvokerCheck {
+    private static int failures;
+
+    public static void main(String[] args) throws Exception {
+        //阈值足够大，调用时不会自动升级，由 upgrade() 显式升级
+        Reflector reflector = new Reflector(Bean.class, Integer.MAX_VALUE);
+        Object[][] setterCases = {
+                {new Bean(), new Object[]{1}},
+                {new Bean(), new Object[]{-1}},
+                {new Bean(), new Object[]{"x"}},
+                {new Bean(), new Object[]{null}},
+                {new Bean(), new Object[]{}},
+                {"not a bean", new Object[]{1}},
+                {null, new Object[]{1}}
+        };
+        compare("setter", reflector.getSetInvoker("value"), setterCases);
+        compare("getter", reflector.getGetInvoker("value"), new Object[][]{{new Bean(), null}, {null, null}});
+        compare("field getter", reflector.getGetInvoker("count"), new Object[][]{{new Bean(), null}, {null, null}});
+        compare("field setter", reflector.getSetInvoker("count"),
+                new Object[][]{{new Bean(), new Object[]{3}}, {new Bean(), new Object[]{"x"}}, {null, new Object[]{3}}});
+
+        Method staticMethod = Bean.class.getMethod("fail", String.class);
+        compare("static method", new MethodInvoker(staticMethod), MethodHandleInvoker.forMethod(staticMethod),
+                new Object[][]{{null, new Object[]{"boom"}}, {null, new Object[]{1}}});
+        Field field = Bean.class.getDeclaredField("count");
+        field.setAccessible(true);
+        compare("field handle", new SetFieldInvoker(field), MethodHandleInvoker.forSetField(field),
+                new Object[][]{{new Bean(), new Object[]{null}}});
+
+        if (failures > 0) {
+            System.out.println("FAILED: " + failures + " checks");
+            System.exit(1);
+        }
+        System.out.println("MethodHandleInvoker checks passed");
+    }
+
+    private static void compare(String name, Invoker invoker, Object[][] cases) throws Exception {
+        if (!(invoker instanceof AdaptiveInvoker)) {
+            check(false, name + " is not adaptive: " + invoker.getClass().getName());
+            return;
+        }
+        AdaptiveInvoker adaptive = (AdaptiveInvoker) invoker;
+        Invoker upgraded = adaptive.upgrade();
+        check(upgraded instanceof MethodHandleInvoker, name + " was not upgraded");
+        compare(name, adaptive.getReflectiveInvoker(), upgraded, cases);
+    }
+
+    private static void compare(String name, Invoker reflective, Invoker upgraded, Object[][] cases) {
+        for (Object[] c : cases) {
+            String expected = outcome(reflective, c[0], (Object[]) c[1]);
+            String actual = outcome(upgraded, c[0], (Object[]) c[1]);
+            check(Objects.equals(expected, actual), name + " with target " + c[0] + ": expected " + expected
+                    + " but was " + actual);
+        }
+    }
+
+    /**
+     * @return 返回值，或异常类型（InvocationTargetException 带上 cause 的类型和信息）
+     */
+    private static String outcome(Invoker invoker, Object target, Object[] args) {
+        try {
+            return "returned " + invoker.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            return "InvocationTargetException(" + e.getCause().getClass().getName() + ": " + e.getCause().getMessage() + ")";
+        } catch (Throwable t) {
+            return t.getClass().getName();
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            failures++;
+            System.out.println("FAILED: " + message);
+        }
+    }
+
+    public static class Bean {
+        private int value;
+        private int count;
+
+        public int getValue() {
+            return value;
+        }
+
+        public void setValue(int value) {
+            if (value < 0) {
+                throw new IllegalStateException("negative value " + value);
+            }
+            this.value = value;
+        }
+
+        public static String fail(String message) {
+            throw new UnsupportedOperationException(message);
+        }
+    }
+}
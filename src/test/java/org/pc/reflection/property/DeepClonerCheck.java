@@ -0,0 +1,105 @@
+package org.pc.reflection.property;
+
+import org.pc.reflection.exception.ReflectionException;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Observable;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.PriorityBlockingQueue;
+
+/**
+ *     DeepCloner 对 JDK 类型属性的行为校验：PriorityQueue、SortedSet、SortedMap 保留比较器，EnumSet、EnumMap
+ * 保持原来的类型，Date 通过 clone() 拷贝，不会通过反射访问 java.* 类的内部字段。
+ *     校验失败时以非 0 状态退出。通过 mvn -P integration verify 运行，也可以直接运行 main()。
+ */
+public class DeepClonerCheck {
+    private static int failures;
+
+    public static void main(String[] args) {
+        DeepCloner cloner = new DeepCloner();
+        Holder source = new Holder();
+        source.queue.add("a");
+        source.queue.add("z");
+        source.blockingQueue.add("a");
+        source.blockingQueue.add("z");
+        source.sortedSet.add("a");
+        source.sortedSet.add("z");
+        source.sortedMap.put("a", 1);
+        source.sortedMap.put("z", 2);
+        source.unmodifiableSortedSet = Collections.unmodifiableSortedSet(source.sortedSet);
+        source.enumSet = EnumSet.of(Color.RED);
+        source.enumMap.put(Color.GREEN, new Date(1000));
+        source.date = new Date(2000);
+
+        Holder copy;
+        try {
+            copy = cloner.deepClone(source);
+        } catch (RuntimeException e) {
+            e.printStackTrace(System.out);
+            System.out.println("FAILED: could not deep clone JDK field types");
+            System.exit(1);
+            return;
+        }
+        check("z".equals(copy.queue.peek()), "PriorityQueue lost its comparator, peek() is " + copy.queue.peek());
+        check("z".equals(copy.blockingQueue.peek()), "PriorityBlockingQueue lost its comparator");
+        check("z".equals(copy.sortedSet.first()), "TreeSet lost its comparator");
+        check("z".equals(copy.sortedMap.firstKey()), "TreeMap lost its comparator");
+        check("z".equals(copy.unmodifiableSortedSet.first()), "unmodifiable SortedSet lost its comparator");
+        check(copy.enumSet instanceof EnumSet && copy.enumSet != source.enumSet && copy.enumSet.equals(source.enumSet),
+                "EnumSet was not copied as EnumSet: " + copy.enumSet);
+        check(copy.enumMap instanceof EnumMap && copy.enumMap != source.enumMap
+                && copy.enumMap.get(Color.GREEN) != source.enumMap.get(Color.GREEN)
+                && copy.enumMap.get(Color.GREEN).equals(source.enumMap.get(Color.GREEN)),
+                "EnumMap was not deep copied as EnumMap: " + copy.enumMap);
+        check(copy.date != source.date && copy.date.equals(source.date), "Date was not cloned: " + copy.date);
+        source.date.setTime(0);
+        check(copy.date.getTime() == 2000, "cloned Date shares state with the source");
+
+        try {
+            cloner.deepClone(new Watched());
+            check(false, "subclass of a JDK class with fields was cloned through its private fields");
+        } catch (ReflectionException expected) {
+            //父类 Observable 的字段无法访问
+        }
+
+        if (failures > 0) {
+            System.out.println("FAILED: " + failures + " checks");
+            System.exit(1);
+        }
+        System.out.println("DeepCloner checks passed");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            failures++;
+            System.out.println("FAILED: " + message);
+        }
+    }
+
+    public enum Color {
+        RED, GREEN
+    }
+
+    public static class Holder {
+        private PriorityQueue<String> queue = new PriorityQueue<>(Comparator.reverseOrder());
+        private PriorityBlockingQueue<String> blockingQueue = new PriorityBlockingQueue<>(4, Comparator.reverseOrder());
+        private TreeSet<String> sortedSet = new TreeSet<>(Comparator.reverseOrder());
+        private SortedMap<String, Integer> sortedMap = new TreeMap<>(Comparator.reverseOrder());
+        private SortedSet<String> unmodifiableSortedSet;
+        private EnumSet<Color> enumSet;
+        private EnumMap<Color, Date> enumMap = new EnumMap<>(Color.class);
+        private Date date;
+    }
+
+    public static class Watched extends Observable {
+        private int value;
+    }
+}
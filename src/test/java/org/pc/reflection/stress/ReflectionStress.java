@@ -0,0 +1,266 @@
+package org.pc.reflection.stress;
+
+import org.pc.reflection.Reflector;
+import org.pc.reflection.factory.DefaultReflectorFactory;
+import org.pc.reflection.invoker.Invoker;
+import org.pc.reflection.property.PropertyCopier;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *     反射缓存的多线程压力测试：生成数千个 JavaBean 类，分别用 1、2、4 ... 64 个线程混合执行冷/热的
+ * DefaultReflectorFactory#findForClass()、属性读写以及 PropertyCopier 复制，输出吞吐量随线程数变化的曲线、
+ * Reflector 重复创建的次数，以及读到错误数据（数据竞争）和同一个类得到不同 Reflector 的次数。
+ *     发现数据竞争或不一致时以非 0 状态退出。通过 mvn -P integration verify 运行，也可以直接运行 main()：
+ * <pre>
+ *     ReflectionStress [类的个数，默认 2000] [最大线程数，默认 64] [每轮秒数，默认 2]
+ * </pre>
+ */
+public class ReflectionStress {
+    private static final String PACKAGE = "stress.gen";
+    private static final int BASE_CLASSES = 16;
+
+    private final List<Class<?>> classes;
+    private final int seconds;
+
+    private ReflectionStress(List<Class<?>> classes, int seconds) {
+        this.classes = classes;
+        this.seconds = seconds;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int classCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+
+        List<Class<?>> classes = generateClasses(classCount);
+        if (classes == null) {
+            System.out.println("No system Java compiler available (running on a JRE?), skipping stress run");
+            return;
+        }
+        System.out.println("classes=" + classes.size() + ", cpus=" + Runtime.getRuntime().availableProcessors()
+                + ", seconds per step=" + seconds);
+        System.out.println(String.format(Locale.ENGLISH, "%8s %14s %8s %8s %10s %8s %12s",
+                "threads", "ops/s", "speedup", "builds", "duplicate", "races", "inconsistent"));
+
+        ReflectionStress stress = new ReflectionStress(classes, seconds);
+        //先预热一轮（JIT 编译），不计入结果
+        stress.run(Math.min(4, maxThreads));
+        double baseline = 0;
+        long failures = 0;
+        for (int threads = 1; threads <= maxThreads; threads <<= 1) {
+            Result result = stress.run(threads);
+            if (baseline == 0) {
+                baseline = result.throughput;
+            }
+            System.out.println(String.format(Locale.ENGLISH, "%8d %14.0f %8.2f %8d %10d %8d %12d",
+                    threads, result.throughput, result.throughput / baseline, result.builds,
+                    result.builds - result.cached, result.races, result.inconsistent));
+            failures += result.races + result.inconsistent;
+        }
+        if (failures > 0) {
+            System.out.println("FAILED: " + failures + " races or inconsistent publications");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 每轮使用新的工厂，所以每轮开始时都是冷缓存
+     */
+    private Result run(int threads) throws InterruptedException {
+        DefaultReflectorFactory factory = new DefaultReflectorFactory();
+        //记录每个类第一次得到的 Reflector，之后得到的必须是同一个对象
+        ConcurrentMap<Class<?>, Reflector> published = new ConcurrentHashMap<>();
+        AtomicLong operations = new AtomicLong();
+        AtomicLong races = new AtomicLong();
+        AtomicLong inconsistent = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        for (int t = 0; t < threads; t++) {
+            final int threadId = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    long count = 0;
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while ((count & 0xFF) != 0 || System.nanoTime() < deadline) {
+                        Class<?> type = classes.get(random.nextInt(classes.size()));
+                        Reflector reflector = factory.findForClass(type);
+                        Reflector first = published.putIfAbsent(type, reflector);
+                        if (first != null && first != reflector) {
+                            inconsistent.incrementAndGet();
+                        }
+                        if (reflector.getGetablePropertyNames().length != 8) {
+                            inconsistent.incrementAndGet();
+                        }
+                        //少量不经过缓存的冷创建
+                        if ((count & 0x3F) == 0) {
+                            reflector = new Reflector(type);
+                        }
+                        races.addAndGet(exercise(reflector, type, threadId, count));
+                        count++;
+                    }
+                    operations.addAndGet(count);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    races.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            }, "reflection-stress-" + t);
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        double elapsed = (System.nanoTime() - begin) / 1e9;
+        return new Result(operations.get() / elapsed, factory.getBuildCount(), factory.getCachedReflectors().size(),
+                races.get(), inconsistent.get());
+    }
+
+    /**
+     * 写入本线程特有的值，读回校验，再用 PropertyCopier 复制并校验
+     * @return 读到错误值的次数
+     */
+    private static long exercise(Reflector reflector, Class<?> type, int threadId, long count) throws Exception {
+        Object source = reflector.getDefaultConstructor().newInstance();
+        int intValue = threadId * 1_000_000 + (int) (count % 1_000_000);
+        long longValue = ((long) threadId << 40) | count;
+        String stringValue = threadId + ":" + count;
+        set(reflector, source, "baseInt", intValue);
+        set(reflector, source, "baseName", stringValue);
+        set(reflector, source, "intValue", intValue);
+        set(reflector, source, "longValue", longValue);
+        set(reflector, source, "doubleValue", (double) longValue);
+        set(reflector, source, "stringValue", stringValue);
+        set(reflector, source, "flag", (count & 1) == 0);
+        set(reflector, source, "boxed", intValue);
+
+        Object target = reflector.getDefaultConstructor().newInstance();
+        PropertyCopier.copyBeanProperties(type, source, target);
+
+        long errors = 0;
+        for (Object bean : new Object[]{source, target}) {
+            errors += check(reflector, bean, "baseInt", intValue);
+            errors += check(reflector, bean, "baseName", stringValue);
+            errors += check(reflector, bean, "intValue", intValue);
+            errors += check(reflector, bean, "longValue", longValue);
+            errors += check(reflector, bean, "doubleValue", (double) longValue);
+            errors += check(reflector, bean, "stringValue", stringValue);
+            errors += check(reflector, bean, "flag", (count & 1) == 0);
+            errors += check(reflector, bean, "boxed", intValue);
+        }
+        return errors;
+    }
+
+    private static void set(Reflector reflector, Object bean, String property, Object value) throws Exception {
+        reflector.getSetInvoker(property).invoke(bean, new Object[]{value});
+    }
+
+    private static int check(Reflector reflector, Object bean, String property, Object expected) throws Exception {
+        Invoker getter = reflector.getGetInvoker(property);
+        return expected.equals(getter.invoke(bean, new Object[0])) ? 0 : 1;
+    }
+
+    /**
+     *     生成并编译 classCount 个 JavaBean：BASE_CLASSES 个父类（各 2 个属性）被所有子类共用，每个子类再声明 6 个属性，
+     * 一半通过 getter/setter 访问，一半只有字段。
+     * @return 没有可用的编译器时返回 null
+     */
+    private static List<Class<?>> generateClasses(int classCount) throws IOException, ClassNotFoundException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            return null;
+        }
+        Path root = Files.createTempDirectory("reflection-stress");
+        Path dir = root.resolve(PACKAGE.replace('.', File.separatorChar));
+        Files.createDirectories(dir);
+        List<String> sources = new ArrayList<>();
+        for (int i = 0; i < BASE_CLASSES; i++) {
+            String name = "Base" + i;
+            String source = "package " + PACKAGE + ";\n"
+                    + "public class " + name + " {\n"
+                    + "    private int baseInt;\n"
+                    + "    private String baseName;\n"
+                    + "    public int getBaseInt() { return baseInt; }\n"
+                    + "    public void setBaseInt(int baseInt) { this.baseInt = baseInt; }\n"
+                    + "    public String getBaseName() { return baseName; }\n"
+                    + "    public void setBaseName(String baseName) { this.baseName = baseName; }\n"
+                    + "}\n";
+            sources.add(write(dir, name, source));
+        }
+        for (int i = 0; i < classCount; i++) {
+            String name = "Bean" + i;
+            String source = "package " + PACKAGE + ";\n"
+                    + "public class " + name + " extends Base" + (i % BASE_CLASSES) + " {\n"
+                    + "    private int intValue;\n"
+                    + "    private long longValue;\n"
+                    + "    private double doubleValue;\n"
+                    + "    private String stringValue;\n"
+                    + "    private boolean flag;\n"
+                    + "    private Integer boxed;\n"
+                    + "    public int getIntValue() { return intValue; }\n"
+                    + "    public void setIntValue(int intValue) { this.intValue = intValue; }\n"
+                    + "    public long getLongValue() { return longValue; }\n"
+                    + "    public void setLongValue(long longValue) { this.longValue = longValue; }\n"
+                    + "    public String getStringValue() { return stringValue; }\n"
+                    + "    public void setStringValue(String stringValue) { this.stringValue = stringValue; }\n"
+                    + "}\n";
+            sources.add(write(dir, name, source));
+        }
+        List<String> arguments = new ArrayList<>();
+        arguments.add("-nowarn");
+        arguments.add("-d");
+        arguments.add(root.toString());
+        arguments.addAll(sources);
+        if (compiler.run(null, null, System.err, arguments.toArray(new String[0])) != 0) {
+            throw new IllegalStateException("Failed to compile generated classes in " + root);
+        }
+        URLClassLoader classLoader = new URLClassLoader(new URL[]{root.toUri().toURL()},
+                ReflectionStress.class.getClassLoader());
+        List<Class<?>> classes = new ArrayList<>();
+        for (int i = 0; i < classCount; i++) {
+            classes.add(classLoader.loadClass(PACKAGE + ".Bean" + i));
+        }
+        return classes;
+    }
+
+    private static String write(Path dir, String name, String source) throws IOException {
+        Path file = dir.resolve(name + ".java");
+        Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+        return file.toString();
+    }
+
+    private static final class Result {
+        private final double throughput;
+        private final long builds;
+        private final long cached;
+        private final long races;
+        private final long inconsistent;
+
+        private Result(double throughput, long builds, long cached, long races, long inconsistent) {
+            this.throughput = throughput;
+            this.builds = builds;
+            this.cached = cached;
+            this.races = races;
+            this.inconsistent = inconsistent;
+        }
+    }
+}